@@ -1,44 +1,118 @@
 import java.util.*;
 
 public class AIPlayer {
+    // Levels differ in how they choose (heuristics, expectimax search or Monte Carlo
+    // search) and in how much of a turn they may spend searching
     public enum AILevel {
-        EASY("Suppandi", "Plays with basic strategy"),
-        MEDIUM("Chacha Chaudhary", "Smart tactical player"), 
-        HARD("Chanakya", "Master strategist");
+        EASY("Suppandi", "Plays with basic strategy", 0),
+        MEDIUM("Chacha Chaudhary", "Smart tactical player", 0), 
+        HARD("Chanakya", "Master strategist", 20),
+        EXPERT("Birbal", "Plays out thousands of possible games", 25);
         
         private final String name;
         private final String description;
+        private final int thinkingPercent;
         
-        AILevel(String name, String description) {
+        AILevel(String name, String description, int thinkingPercent) {
             this.name = name;
             this.description = description;
+            this.thinkingPercent = thinkingPercent;
         }
         
         public String getName() { return name; }
         public String getDescription() { return description; }
+        
+        // Share of the turn time spent searching; 0 for levels that don't search
+        public int getThinkingPercent() { return thinkingPercent; }
     }
     
-    private AILevel level;
-    private Random random;
+    // Turn length assumed when chooseMove is called without limits
+    public static final long DEFAULT_TURN_MILLIS = 15_000;
+    
+    // Memory for Chanakya's transposition table, kept for the whole game
+    private static final int HARD_TABLE_MEGABYTES = 16;
+    
+    private final AILevel level;
+    private Random random;       // Used only on the thread that calls chooseMove
+    private long turnSeed;       // Drawn from random each turn; seeds the evaluation noise
+    private final SearchEngine searchEngine;   // Chanakya only; null at other levels
+    private MonteCarloSearch monteCarloSearch;
+    private final MoveList generated = new MoveList();   // Used only on the chooseMove thread
+    
+    // The position being scored, mapped once per batch of moves; only the thread that
+    // calls chooseMove or ponder updates it
+    private final ThreatMap threats = new ThreatMap();
+    private final SearchEngine.MoveEvaluator mediumEvaluator = new ThreatEvaluator(false);
+    private final SearchEngine.MoveEvaluator hardEvaluator = new ThreatEvaluator(true);
     
     public AIPlayer(AILevel level) {
+        this(level, new Random());
+    }
+    
+    // A player whose choices are repeatable: the same seed, position and limits give
+    // the same move (for searches with a node limit rather than a time limit)
+    public AIPlayer(AILevel level, long seed) {
+        this(level, new Random(seed));
+    }
+    
+    private AIPlayer(AILevel level, Random random) {
         this.level = level;
-        this.random = new Random();
+        this.random = random;
+        // Only Chanakya searches with a table, so only Chanakya pays for one
+        this.searchEngine = level == AILevel.HARD
+                ? new SearchEngine(hardEvaluator, new TranspositionTable(HARD_TABLE_MEGABYTES))
+                : null;
+        this.monteCarloSearch = new MonteCarloSearch(random.nextLong());
     }
     
     public AIMove chooseMove(Board board, Player aiPlayer, Player humanPlayer) {
+        return chooseMove(board, aiPlayer, humanPlayer, limitsForTurn(DEFAULT_TURN_MILLIS));
+    }
+    
+    public AIMove chooseMove(Board board, Player aiPlayer, Player humanPlayer, SearchLimits limits) {
+        return chooseMove(board, aiPlayer, humanPlayer, null, limits);
+    }
+    
+    // Choose a move, searching until the limits run out. Levels that don't search
+    // answer at once; the others return the best move found so far when time is up.
+    // spentCards, from GameEngine.getSpentCards, tells Birbal which cards are out of
+    // play; without it Birbal guesses from the chips on the board.
+    public AIMove chooseMove(Board board, Player aiPlayer, Player humanPlayer, int[] spentCards, SearchLimits limits) {
+        turnSeed = random.nextLong();
         switch (level) {
             case EASY:
                 return chooseSuppandiMove(board, aiPlayer, humanPlayer);
             case MEDIUM:
                 return chooseChaChaudharyMove(board, aiPlayer, humanPlayer);
             case HARD:
-                return chooseChankyaMove(board, aiPlayer, humanPlayer);
+                return chooseChankyaMove(board, aiPlayer, humanPlayer, limits);
+            case EXPERT:
+                return chooseBirbalMove(board, aiPlayer, humanPlayer, spentCards, limits);
             default:
                 return chooseSuppandiMove(board, aiPlayer, humanPlayer);
         }
     }
     
+    public void ponder(Board board, Player aiPlayer, Player humanPlayer, SearchLimits limits) {
+        ponder(board, aiPlayer, humanPlayer, null, limits);
+    }
+    
+    // Think about the position while the human is on move, so the next chooseMove
+    // starts from what was found. Runs on the calling thread until the limits run out
+    // or the thread is interrupted; levels that don't search return at once.
+    public void ponder(Board board, Player aiPlayer, Player humanPlayer, int[] spentCards, SearchLimits limits) {
+        switch (level) {
+            case HARD:
+                searchEngine.ponder(board, aiPlayer, humanPlayer, limits);
+                break;
+            case EXPERT:
+                monteCarloSearch.ponder(board, aiPlayer, humanPlayer, spentCards, limits);
+                break;
+            default:
+                break;
+        }
+    }
+    
     // SUPPANDI (Easy) - Basic strategy with some smart moves
     private AIMove chooseSuppandiMove(Board board, Player aiPlayer, Player humanPlayer) {
         List<AIMove> allMoves = getAllPossibleMoves(board, aiPlayer);
@@ -48,7 +122,8 @@ public class AIPlayer {
         
         // 30% chance of making a smart move, 70% random
         if (random.nextInt(100) < 30) {
-            return findSmartMove(board, aiPlayer, humanPlayer, allMoves);
+            threats.update(board);
+            return findSmartMove(threats, aiPlayer, humanPlayer, allMoves);
         }
         
         // Otherwise random move
@@ -62,74 +137,87 @@ public class AIPlayer {
             return new AIMove(aiPlayer.getHand().get(0), -1, -1); // Discard
         }
         
+        // Score every candidate (in parallel when there are many), then keep the
+        // first of the best so the choice doesn't depend on thread timing
+        AIMove[] moves = allMoves.toArray(new AIMove[0]);
+        int[] scores = mediumEvaluator.evaluateAll(board, moves, moves.length, aiPlayer, humanPlayer);
+        
         AIMove bestMove = null;
         int bestScore = Integer.MIN_VALUE;
         
-        for (AIMove move : allMoves) {
-            int score = evaluateMoveMedium(board, move, aiPlayer, humanPlayer);
-            if (score > bestScore) {
-                bestScore = score;
-                bestMove = move;
+        for (int i = 0; i < moves.length; i++) {
+            if (scores[i] > bestScore) {
+                bestScore = scores[i];
+                bestMove = moves[i];
             }
         }
         
         return bestMove != null ? bestMove : allMoves.get(0);
     }
     
-    // CHANAKYA (Hard) - Master strategist
-    private AIMove chooseChankyaMove(Board board, Player aiPlayer, Player humanPlayer) {
+    // CHANAKYA (Hard) - Master strategist: looks ahead at replies with SearchEngine,
+    // which orders the candidates with the same terms as evaluateMoveHard
+    private AIMove chooseChankyaMove(Board board, Player aiPlayer, Player humanPlayer, SearchLimits limits) {
         List<AIMove> allMoves = getAllPossibleMoves(board, aiPlayer);
         if (allMoves.isEmpty()) {
             return new AIMove(aiPlayer.getHand().get(0), -1, -1); // Discard
         }
         
-        AIMove bestMove = null;
-        int bestScore = Integer.MIN_VALUE;
-        
-        for (AIMove move : allMoves) {
-            int score = evaluateMoveHard(board, move, aiPlayer, humanPlayer);
-            if (score > bestScore) {
-                bestScore = score;
-                bestMove = move;
-            }
+        AIMove bestMove = searchEngine.search(board, aiPlayer, humanPlayer, allMoves, limits);
+        return bestMove != null ? bestMove : allMoves.get(0);
+    }
+    
+    // BIRBAL (Expert) - Imagines how the opponent's hidden cards and the deck might
+    // lie, and plays each candidate out many times with MonteCarloSearch
+    private AIMove chooseBirbalMove(Board board, Player aiPlayer, Player humanPlayer, int[] spentCards, SearchLimits limits) {
+        List<AIMove> allMoves = getAllPossibleMoves(board, aiPlayer);
+        if (allMoves.isEmpty()) {
+            return new AIMove(aiPlayer.getHand().get(0), -1, -1); // Discard
         }
         
+        AIMove bestMove = monteCarloSearch.search(board, aiPlayer, humanPlayer, spentCards, allMoves, limits);
         return bestMove != null ? bestMove : allMoves.get(0);
     }
     
-    // Get all possible moves for the AI
+    // Get all possible moves for the AI, as the shared AIMove of each
     private List<AIMove> getAllPossibleMoves(Board board, Player aiPlayer) {
-        List<AIMove> moves = new ArrayList<>();
+        generated.clear();
+        long seenCards = 0; // Both copies of a card give the same moves
         
         for (Card card : aiPlayer.getHand()) {
-            List<int[]> validPositions = board.getValidMoves(card, aiPlayer.getId());
-            for (int[] pos : validPositions) {
-                moves.add(new AIMove(card, pos[0], pos[1]));
-            }
+            long cardBit = 1L << card.getId();
+            if ((seenCards & cardBit) != 0) continue;
+            seenCards |= cardBit;
+            
+            board.addValidMoves(card, aiPlayer.getId(), generated);
         }
         
+        List<AIMove> moves = new ArrayList<>(generated.size());
+        for (int i = 0; i < generated.size(); i++) {
+            moves.add(MoveList.toAIMove(generated.get(i)));
+        }
         return moves;
     }
     
     // Find a smart move from available moves
-    private AIMove findSmartMove(Board board, Player aiPlayer, Player humanPlayer, List<AIMove> allMoves) {
+    private AIMove findSmartMove(ThreatMap threats, Player aiPlayer, Player humanPlayer, List<AIMove> allMoves) {
         // Look for winning moves first
         for (AIMove move : allMoves) {
-            if (wouldWinGame(board, move, aiPlayer)) {
+            if (wouldWinGame(threats, move, aiPlayer)) {
                 return move;
             }
         }
         
         // Look for blocking moves
         for (AIMove move : allMoves) {
-            if (wouldBlockHumanWin(board, move, humanPlayer)) {
+            if (wouldBlockHumanWin(threats, move, humanPlayer)) {
                 return move;
             }
         }
         
         // Look for sequence completing moves
         for (AIMove move : allMoves) {
-            if (wouldCompleteSequence(board, move, aiPlayer)) {
+            if (wouldCompleteSequence(threats, move, aiPlayer)) {
                 return move;
             }
         }
@@ -138,37 +226,59 @@ public class AIPlayer {
         return allMoves.get(random.nextInt(allMoves.size()));
     }
     
+    // Scores moves with the Medium or Hard terms. prepare maps the position once and
+    // every term of every move in the batch reads from that map, so the scores can
+    // be worked out on several threads at once.
+    private final class ThreatEvaluator implements SearchEngine.MoveEvaluator {
+        private final boolean hard;
+        
+        ThreatEvaluator(boolean hard) {
+            this.hard = hard;
+        }
+        
+        @Override
+        public void prepare(Board board, Player mover, Player opponent) {
+            threats.update(board);
+        }
+        
+        @Override
+        public int evaluate(Board board, AIMove move, Player mover, Player opponent) {
+            return hard ? evaluateMoveHard(threats, move, mover, opponent)
+                        : evaluateMoveMedium(threats, move, mover, opponent);
+        }
+    }
+    
     // MEDIUM AI EVALUATION
-    private int evaluateMoveMedium(Board board, AIMove move, Player aiPlayer, Player humanPlayer) {
+    private int evaluateMoveMedium(ThreatMap threats, AIMove move, Player aiPlayer, Player humanPlayer) {
         int score = 0;
         int row = move.getRow();
         int col = move.getCol();
         
         // Winning move - highest priority
-        if (wouldWinGame(board, move, aiPlayer)) {
+        if (wouldWinGame(threats, move, aiPlayer)) {
             return 100000;
         }
         
         // Block human from winning
-        if (wouldBlockHumanWin(board, move, humanPlayer)) {
+        if (wouldBlockHumanWin(threats, move, humanPlayer)) {
             score += 50000;
         }
         
         // Complete a sequence
-        if (wouldCompleteSequence(board, move, aiPlayer)) {
+        if (wouldCompleteSequence(threats, move, aiPlayer)) {
             score += 25000;
         }
         
         // Block human sequence progress
-        if (wouldBlockHumanSequence(board, move, humanPlayer)) {
+        if (wouldBlockHumanSequence(threats, move, humanPlayer)) {
             score += 10000;
         }
         
         // Progress towards own sequence
-        score += countSequenceProgress(board, row, col, aiPlayer.getId()) * 1000;
+        score += countSequenceProgress(threats, row, col, aiPlayer.getId()) * 1000;
         
         // Corner usage
-        if (board.isCornerAt(row, col) || isNearCorner(row, col)) {
+        if (threats.isCornerAt(row, col) || isNearCorner(row, col)) {
             score += 500;
         }
         
@@ -177,216 +287,117 @@ public class AIPlayer {
         
         // Jack strategy
         if (move.getCard().isJack()) {
-            score += evaluateJackMove(board, move, aiPlayer, humanPlayer);
+            score += evaluateJackMove(threats, move, aiPlayer, humanPlayer);
         }
         
         // Add small randomness to avoid predictability
-        score += random.nextInt(100);
+        score += noise(move);
         
         return score;
     }
     
+    // Random 0-99 for this move and turn. Each call seeds its own generator, so moves
+    // can be scored on several threads and still get the same noise.
+    private int noise(AIMove move) {
+        long moveKey = (long) move.getCard().getId() * Board.CELLS + move.getRow() * Board.SIZE + move.getCol();
+        return new SplittableRandom(turnSeed ^ moveKey).nextInt(100);
+    }
+    
     // HARD AI EVALUATION  
-    private int evaluateMoveHard(Board board, AIMove move, Player aiPlayer, Player humanPlayer) {
-        int score = evaluateMoveMedium(board, move, aiPlayer, humanPlayer);
+    private int evaluateMoveHard(ThreatMap threats, AIMove move, Player aiPlayer, Player humanPlayer) {
+        int score = evaluateMoveMedium(threats, move, aiPlayer, humanPlayer);
         int row = move.getRow();
         int col = move.getCol();
         
         // Advanced strategic considerations
         
         // Multiple sequence threats
-        score += countMultipleSequenceThreats(board, row, col, aiPlayer.getId()) * 2000;
+        score += countMultipleSequenceThreats(threats, row, col, aiPlayer.getId()) * 2000;
         
         // Defensive positioning - block multiple human threats
-        score += countMultipleSequenceThreats(board, row, col, humanPlayer.getId()) * -1500;
+        score += countMultipleSequenceThreats(threats, row, col, humanPlayer.getId()) * -1500;
         
         // Future flexibility - positions that create multiple opportunities
-        score += evaluateFutureFlexibility(board, row, col, aiPlayer.getId()) * 500;
+        score += evaluateFutureFlexibility(threats, row, col, aiPlayer.getId()) * 500;
         
         // Endgame strategy - if one player has 1 sequence, prioritize differently
-        if (board.countSequences(aiPlayer.getId()) == 1) {
-            score += evaluateEndgameStrategy(board, move, aiPlayer, humanPlayer);
+        if (threats.sequences(aiPlayer.getId()) == 1) {
+            score += evaluateEndgameStrategy(threats, move, aiPlayer, humanPlayer);
         }
         
-        if (board.countSequences(humanPlayer.getId()) == 1) {
-            score += evaluateDefensiveEndgame(board, move, aiPlayer, humanPlayer);
+        if (threats.sequences(humanPlayer.getId()) == 1) {
+            score += evaluateDefensiveEndgame(threats, move, aiPlayer, humanPlayer);
         }
         
         // Tempo considerations - forcing opponent responses
-        score += evaluateTempo(board, move, aiPlayer, humanPlayer);
+        score += evaluateTempo(threats, move, aiPlayer, humanPlayer);
         
         // Board control
-        score += evaluateBoardControl(board, row, col, aiPlayer.getId()) * 200;
+        score += evaluateBoardControl(threats, row, col, aiPlayer.getId()) * 200;
         
         return score;
     }
     
     // Check if move would win the game
-    private boolean wouldWinGame(Board board, AIMove move, Player player) {
+    private boolean wouldWinGame(ThreatMap threats, AIMove move, Player player) {
         if (move.isDiscard()) return false;
         
         // Simulate the move
-        int currentSequences = board.countSequences(player.getId());
+        int currentSequences = threats.sequences(player.getId());
         
         // If player already has 1 sequence and this would create another line of 4+ chips
         if (currentSequences >= 1) {
-            return wouldCreateWinningSequence(board, move.getRow(), move.getCol(), player.getId());
+            return wouldCreateWinningSequence(threats, move.getRow(), move.getCol(), player.getId());
         }
         
         return false;
     }
     
     // Check if move would create a winning sequence
-    private boolean wouldCreateWinningSequence(Board board, int row, int col, int playerId) {
-        int[][] directions = {{0,1}, {1,0}, {1,1}, {1,-1}};
-        
-        for (int[] dir : directions) {
-            int count = 1; // The position we're placing
-            
-            // Count in positive direction
-            for (int i = 1; i < 5; i++) {
-                int newRow = row + i * dir[0];
-                int newCol = col + i * dir[1];
-                if (newRow >= 0 && newRow < 10 && newCol >= 0 && newCol < 10) {
-                    Integer chipOwner = board.getChipAt(newRow, newCol);
-                    if ((chipOwner != null && chipOwner == playerId) || board.isCornerAt(newRow, newCol)) {
-                        count++;
-                    } else {
-                        break;
-                    }
-                } else {
-                    break;
-                }
-            }
-            
-            // Count in negative direction
-            for (int i = 1; i < 5; i++) {
-                int newRow = row - i * dir[0];
-                int newCol = col - i * dir[1];
-                if (newRow >= 0 && newRow < 10 && newCol >= 0 && newCol < 10) {
-                    Integer chipOwner = board.getChipAt(newRow, newCol);
-                    if ((chipOwner != null && chipOwner == playerId) || board.isCornerAt(newRow, newCol)) {
-                        count++;
-                    } else {
-                        break;
-                    }
-                } else {
-                    break;
-                }
-            }
-            
-            if (count >= 5) return true;
-        }
-        
-        return false;
+    private boolean wouldCreateWinningSequence(ThreatMap threats, int row, int col, int playerId) {
+        // Some line of 5 through this position is already the player's apart from it
+        return threats.completesLine(playerId, row, col);
     }
     
     // Check if move would block human from winning
-    private boolean wouldBlockHumanWin(Board board, AIMove move, Player humanPlayer) {
+    private boolean wouldBlockHumanWin(ThreatMap threats, AIMove move, Player humanPlayer) {
         if (move.isDiscard()) return false;
         
         // If human has 1 sequence, check if this move blocks their potential 2nd sequence
-        if (board.countSequences(humanPlayer.getId()) >= 1) {
-            return wouldBlockSequenceCompletion(board, move.getRow(), move.getCol(), humanPlayer.getId());
+        if (threats.sequences(humanPlayer.getId()) >= 1) {
+            return wouldBlockSequenceCompletion(threats, move.getRow(), move.getCol(), humanPlayer.getId());
         }
         
         return false;
     }
     
     // Check if move would block a sequence completion
-    private boolean wouldBlockSequenceCompletion(Board board, int row, int col, int opponentId) {
-        // Check if opponent could complete a sequence using this position
-        int[][] directions = {{0,1}, {1,0}, {1,1}, {1,-1}};
-        
-        for (int[] dir : directions) {
-            // Check all possible 5-chip sequences that would include this position
-            for (int start = -4; start <= 0; start++) {
-                int count = 0;
-                boolean includesThisPosition = false;
-                
-                for (int i = 0; i < 5; i++) {
-                    int checkRow = row + (start + i) * dir[0];
-                    int checkCol = col + (start + i) * dir[1];
-                    
-                    if (checkRow >= 0 && checkRow < 10 && checkCol >= 0 && checkCol < 10) {
-                        if (checkRow == row && checkCol == col) {
-                            includesThisPosition = true;
-                            count++; // This position would help complete sequence
-                        } else {
-                            Integer chipOwner = board.getChipAt(checkRow, checkCol);
-                            if ((chipOwner != null && chipOwner == opponentId) || board.isCornerAt(checkRow, checkCol)) {
-                                count++;
-                            }
-                        }
-                    }
-                }
-                
-                // If this position would complete a sequence of 5
-                if (count >= 5 && includesThisPosition) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
+    private boolean wouldBlockSequenceCompletion(ThreatMap threats, int row, int col, int opponentId) {
+        // Opponent could complete a line of 5 using this position
+        return threats.completesLine(opponentId, row, col);
     }
     
     // Check if move would complete a sequence
-    private boolean wouldCompleteSequence(Board board, AIMove move, Player player) {
+    private boolean wouldCompleteSequence(ThreatMap threats, AIMove move, Player player) {
         if (move.isDiscard()) return false;
-        return wouldCreateWinningSequence(board, move.getRow(), move.getCol(), player.getId());
+        return wouldCreateWinningSequence(threats, move.getRow(), move.getCol(), player.getId());
     }
     
     // Check if move would block human sequence progress
-    private boolean wouldBlockHumanSequence(Board board, AIMove move, Player humanPlayer) {
+    private boolean wouldBlockHumanSequence(ThreatMap threats, AIMove move, Player humanPlayer) {
         if (move.isDiscard()) return false;
         
         int row = move.getRow();
         int col = move.getCol();
         
         // Count adjacent human chips - if 2+, this is blocking progress
-        return countAdjacentChips(board, row, col, humanPlayer.getId()) >= 2;
+        return countAdjacentChips(threats, row, col, humanPlayer.getId()) >= 2;
     }
     
-    // Count sequence progress for a position
-    private int countSequenceProgress(Board board, int row, int col, int playerId) {
-        int maxProgress = 0;
-        int[][] directions = {{0,1}, {1,0}, {1,1}, {1,-1}};
-        
-        for (int[] dir : directions) {
-            int progress = 1; // This position
-            
-            // Count in both directions
-            for (int i = 1; i < 5; i++) {
-                int newRow = row + i * dir[0];
-                int newCol = col + i * dir[1];
-                if (newRow >= 0 && newRow < 10 && newCol >= 0 && newCol < 10) {
-                    Integer chipOwner = board.getChipAt(newRow, newCol);
-                    if ((chipOwner != null && chipOwner == playerId) || board.isCornerAt(newRow, newCol)) {
-                        progress++;
-                    } else {
-                        break;
-                    }
-                }
-            }
-            
-            for (int i = 1; i < 5; i++) {
-                int newRow = row - i * dir[0];
-                int newCol = col - i * dir[1];
-                if (newRow >= 0 && newRow < 10 && newCol >= 0 && newCol < 10) {
-                    Integer chipOwner = board.getChipAt(newRow, newCol);
-                    if ((chipOwner != null && chipOwner == playerId) || board.isCornerAt(newRow, newCol)) {
-                        progress++;
-                    } else {
-                        break;
-                    }
-                }
-            }
-            
-            maxProgress = Math.max(maxProgress, progress);
-        }
-        
-        return maxProgress;
+    // Count sequence progress for a position: the longest line of the player's chips
+    // and corners through it
+    private int countSequenceProgress(ThreatMap threats, int row, int col, int playerId) {
+        return threats.progress(playerId, row, col);
     }
     
     // Check if position is near corner
@@ -402,7 +413,7 @@ public class AIPlayer {
     }
     
     // Evaluate Jack moves
-    private int evaluateJackMove(Board board, AIMove move, Player aiPlayer, Player humanPlayer) {
+    private int evaluateJackMove(ThreatMap threats, AIMove move, Player aiPlayer, Player humanPlayer) {
         if (move.isDiscard()) return 0;
         
         Card card = move.getCard();
@@ -410,103 +421,73 @@ public class AIPlayer {
         int col = move.getCol();
         
         // Two-eyed Jack (wild)
-        if (card.getSuit().equals("Hearts") || card.getSuit().equals("Diamonds")) {
+        if (card.isTwoEyedJack()) {
             // Prefer using wild Jacks for sequence completion or key defensive positions
-            return countSequenceProgress(board, row, col, aiPlayer.getId()) * 500;
+            return countSequenceProgress(threats, row, col, aiPlayer.getId()) * 500;
         }
         
         // One-eyed Jack (removal)
-        if (card.getSuit().equals("Spades") || card.getSuit().equals("Clubs")) {
-            Integer chipOwner = board.getChipAt(row, col);
-            if (chipOwner != null && chipOwner == humanPlayer.getId()) {
+        if (card.isOneEyedJack()) {
+            if (threats.ownerAt(row, col) == humanPlayer.getId()) {
                 // Higher value for removing chips that block our sequences
-                return countSequenceProgress(board, row, col, aiPlayer.getId()) * 300;
+                return countSequenceProgress(threats, row, col, aiPlayer.getId()) * 300;
             }
         }
         
         return 0;
     }
     
-    // Count adjacent chips of a player
-    private int countAdjacentChips(Board board, int row, int col, int playerId) {
-        int count = 0;
-        for (int r = row - 1; r <= row + 1; r++) {
-            for (int c = col - 1; c <= col + 1; c++) {
-                if (r >= 0 && r < 10 && c >= 0 && c < 10 && !(r == row && c == col)) {
-                    Integer chipOwner = board.getChipAt(r, c);
-                    if ((chipOwner != null && chipOwner == playerId) || board.isCornerAt(r, c)) {
-                        count++;
-                    }
-                }
-            }
-        }
-        return count;
+    // Count adjacent chips of a player (corners count for everyone)
+    private int countAdjacentChips(ThreatMap threats, int row, int col, int playerId) {
+        return threats.adjacent(playerId, row, col);
     }
     
     // ADVANCED METHODS FOR HARD AI
     
-    // Count multiple sequence threats
-    private int countMultipleSequenceThreats(Board board, int row, int col, int playerId) {
-        int threats = 0;
-        int[][] directions = {{0,1}, {1,0}, {1,1}, {1,-1}};
-        
-        for (int[] dir : directions) {
-            if (countSequenceProgress(board, row, col, playerId) >= 3) {
-                threats++;
-            }
+    // Count multiple sequence threats: each of the four directions counts when the
+    // best line through the position is 3 or longer
+    private int countMultipleSequenceThreats(ThreatMap threats, int row, int col, int playerId) {
+        if (countSequenceProgress(threats, row, col, playerId) >= 3) {
+            return SequenceWindows.DIRECTIONS.length;
         }
-        
-        return threats;
+        return 0;
     }
     
-    // Evaluate future flexibility
-    private int evaluateFutureFlexibility(Board board, int row, int col, int playerId) {
-        int flexibility = 0;
-        
-        // Count empty adjacent spaces for future development
-        for (int r = row - 1; r <= row + 1; r++) {
-            for (int c = col - 1; c <= col + 1; c++) {
-                if (r >= 0 && r < 10 && c >= 0 && c < 10) {
-                    if (board.getChipAt(r, c) == null) {
-                        flexibility++;
-                    }
-                }
-            }
-        }
-        
-        return flexibility;
+    // Evaluate future flexibility: empty spaces around the position for future development
+    private int evaluateFutureFlexibility(ThreatMap threats, int row, int col, int playerId) {
+        return threats.emptyAround(row, col);
     }
     
     // Endgame strategy when AI has 1 sequence
-    private int evaluateEndgameStrategy(Board board, AIMove move, Player aiPlayer, Player humanPlayer) {
+    private int evaluateEndgameStrategy(ThreatMap threats, AIMove move, Player aiPlayer, Player humanPlayer) {
         if (move.isDiscard()) return 0;
         
         // Focus on completing 2nd sequence quickly
         int score = 0;
         
-        if (wouldCompleteSequence(board, move, aiPlayer)) {
+        if (wouldCompleteSequence(threats, move, aiPlayer)) {
             score += 30000; // Very high priority
         }
         
         // Prefer moves that create multiple threats
-        score += countMultipleSequenceThreats(board, move.getRow(), move.getCol(), aiPlayer.getId()) * 5000;
+        score += countMultipleSequenceThreats(threats, move.getRow(), move.getCol(), aiPlayer.getId()) * 5000;
         
         return score;
     }
     
     // Defensive endgame when human has 1 sequence
-    private int evaluateDefensiveEndgame(Board board, AIMove move, Player aiPlayer, Player humanPlayer) {
+    private int evaluateDefensiveEndgame(ThreatMap threats, AIMove move, Player aiPlayer, Player humanPlayer) {
         if (move.isDiscard()) return 0;
         
         int score = 0;
         
         // Block human completion attempts
-        if (wouldBlockHumanWin(board, move, humanPlayer)) {
+        if (wouldBlockHumanWin(threats, move, humanPlayer)) {
             score += 40000;
         }
         
         // Block human sequence building
-        if (wouldBlockHumanSequence(board, move, humanPlayer)) {
+        if (wouldBlockHumanSequence(threats, move, humanPlayer)) {
             score += 15000;
         }
         
@@ -514,7 +495,7 @@ public class AIPlayer {
     }
     
     // Evaluate tempo (forcing opponent responses)
-    private int evaluateTempo(Board board, AIMove move, Player aiPlayer, Player humanPlayer) {
+    private int evaluateTempo(ThreatMap threats, AIMove move, Player aiPlayer, Player humanPlayer) {
         if (move.isDiscard()) return 0;
         
         int tempo = 0;
@@ -522,41 +503,32 @@ public class AIPlayer {
         int col = move.getCol();
         
         // Moves that create immediate threats force responses
-        if (countSequenceProgress(board, row, col, aiPlayer.getId()) >= 4) {
+        if (countSequenceProgress(threats, row, col, aiPlayer.getId()) >= 4) {
             tempo += 1000; // Forces defensive response
         }
         
         // Moves that threaten multiple sequences
-        if (countMultipleSequenceThreats(board, row, col, aiPlayer.getId()) >= 2) {
+        if (countMultipleSequenceThreats(threats, row, col, aiPlayer.getId()) >= 2) {
             tempo += 2000; // Very hard to defend against
         }
         
         return tempo;
     }
     
-    // Evaluate board control
-    private int evaluateBoardControl(Board board, int row, int col, int playerId) {
-        int control = 0;
-        
-        // Count controlled area around this position
-        for (int r = row - 2; r <= row + 2; r++) {
-            for (int c = col - 2; c <= col + 2; c++) {
-                if (r >= 0 && r < 10 && c >= 0 && c < 10) {
-                    Integer chipOwner = board.getChipAt(r, c);
-                    if (chipOwner != null && chipOwner == playerId) {
-                        control++;
-                    }
-                }
-            }
-        }
-        
-        return control;
+    // Evaluate board control: the player's chips within two cells of this position
+    private int evaluateBoardControl(ThreatMap threats, int row, int col, int playerId) {
+        return threats.control(playerId, row, col);
     }
     
     public String getName() {
         return level.getName();
     }
     
+    // Time this level may search on a turn of the given length
+    public SearchLimits limitsForTurn(long turnMillis) {
+        return SearchLimits.millis(turnMillis * level.getThinkingPercent() / 100);
+    }
+    
     public String getDescription() {
         return level.getDescription();
     }
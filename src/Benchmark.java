@@ -0,0 +1,217 @@
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+// Microbenchmarks for the Board rules and AI move choice, run on a fixed corpus of
+// mid-game and late-game positions so numbers can be compared between changes.
+//
+//   java Benchmark [name filter]
+//
+// Each benchmark warms up, then times several iterations and reports the mean time
+// per operation with its standard deviation, and the bytes allocated per operation
+// by the benchmark thread. Work done on other threads (Birbal's playouts, parallel
+// move scoring) counts towards the time but not the allocation.
+public class Benchmark {
+    private static final long CORPUS_SEED = 20_240_601L;
+    private static final int POSITIONS_PER_PHASE = 8;
+    private static final int MID_GAME_MOVES = 20;
+    private static final int LATE_GAME_MOVES = 50;
+
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 250_000_000L;
+
+    // Results are summed here so the JIT can't drop the work as unused
+    private static volatile long sink;
+
+    // One benchmark operation on a position; returns something derived from the work
+    private interface Operation {
+        long run(Position position);
+    }
+
+    // A position from the corpus: the board, the player to move and their opponent,
+    // the cards played or discarded so far, and the moves the player could make
+    private static class Position {
+        final Board board;
+        final Player mover;
+        final Player opponent;
+        final int[] spentCards;
+        final AIMove[] moves;
+
+        Position(GameEngine engine) {
+            this.board = engine.getBoard().copy();
+            this.mover = engine.getCurrentPlayer().copy();
+            this.opponent = engine.getNextPlayer().copy();
+            this.spentCards = engine.getSpentCards();
+            List<AIMove> legal = new ArrayList<>();
+            for (AIMove move : engine.legalMoves()) {
+                if (!move.isDiscard()) legal.add(move);
+            }
+            this.moves = legal.toArray(new AIMove[0]);
+        }
+    }
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final List<Position> corpus;
+    private final String filter;
+
+    public Benchmark(String filter) {
+        this.filter = filter;
+        this.corpus = buildCorpus();
+    }
+
+    // Play seeded games between Chacha Chaudhary and Suppandi and keep the positions
+    // reached after a fixed number of moves. The same seed always gives the same corpus.
+    private static List<Position> buildCorpus() {
+        List<Position> positions = new ArrayList<>();
+        SplittableRandom seeds = new SplittableRandom(CORPUS_SEED);
+        int[] phaseMoves = {MID_GAME_MOVES, LATE_GAME_MOVES};
+
+        for (int phase = 0; phase < phaseMoves.length; phase++) {
+            int found = 0;
+            while (found < POSITIONS_PER_PHASE) {
+                Player first = new Player(1, "A");
+                Player second = new Player(2, "B");
+                AIPlayer[] ais = {
+                        new AIPlayer(AIPlayer.AILevel.MEDIUM, seeds.nextLong()),
+                        new AIPlayer(AIPlayer.AILevel.EASY, seeds.nextLong())
+                };
+                GameEngine engine = new GameEngine(new Deck(new Random(seeds.nextLong())), first, second);
+
+                int moves = 0;
+                while (moves < phaseMoves[phase] && !engine.isOver()) {
+                    int side = engine.getCurrentPlayerIndex();
+                    AIMove move = ais[side].chooseMove(engine.getBoard(), engine.getCurrentPlayer(),
+                            engine.getNextPlayer(), engine.getSpentCards(), SearchLimits.FAST);
+                    if (!engine.apply(move)) engine.skipTurn();
+                    moves++;
+                }
+                // Games that end early don't give a position for this phase
+                if (!engine.isOver()) {
+                    positions.add(new Position(engine));
+                    found++;
+                }
+            }
+        }
+        return positions;
+    }
+
+    // Run one benchmark over every position in the corpus and print its line
+    private void bench(String name, Operation operation) {
+        if (filter != null && !name.contains(filter)) return;
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(operation);
+        }
+
+        double[] nanosPerOp = new double[MEASURED_ITERATIONS];
+        double bytesPerOp = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            double[] result = iteration(operation);
+            nanosPerOp[i] = result[0];
+            bytesPerOp += result[1] / MEASURED_ITERATIONS;
+        }
+
+        double mean = 0;
+        for (double n : nanosPerOp) mean += n / MEASURED_ITERATIONS;
+        double variance = 0;
+        for (double n : nanosPerOp) variance += (n - mean) * (n - mean) / (MEASURED_ITERATIONS - 1);
+
+        System.out.printf("%-32s %14.1f %12.1f %12.1f%n", name, mean, Math.sqrt(variance), bytesPerOp);
+    }
+
+    // Run the operation over the corpus until the iteration time is used up.
+    // Returns nanoseconds and allocated bytes per operation.
+    private double[] iteration(Operation operation) {
+        long threadId = Thread.currentThread().getId();
+        long ops = 0;
+        long result = 0;
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (Position position : corpus) {
+                result += operation.run(position);
+                ops++;
+            }
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+        long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        sink += result;
+        return new double[] {(double) elapsed / ops, (double) bytes / ops};
+    }
+
+    // A card of one kind from the player's hand, or the first such card in the deck
+    // when the hand has none, so each position has a card of every kind to try
+    private static Card cardOfKind(Position position, Card.JackType kind) {
+        for (Card card : position.mover.getHand()) {
+            if (card.getJackType() == kind) return card;
+        }
+        for (int id = 0; id < Card.COUNT; id++) {
+            if (Card.byId(id).getJackType() == kind) return Card.byId(id);
+        }
+        throw new IllegalStateException("No card of kind " + kind);
+    }
+
+    public void run() {
+        System.out.println("Corpus: " + corpus.size() + " positions (" + POSITIONS_PER_PHASE
+                + " after " + MID_GAME_MOVES + " moves, " + POSITIONS_PER_PHASE + " after "
+                + LATE_GAME_MOVES + "), seed " + CORPUS_SEED);
+        System.out.printf("%-32s %14s %12s %12s%n", "Benchmark", "ns/op", "stddev", "B/op");
+        System.out.println("-".repeat(73));
+
+        bench("Board.countSequences", p -> p.board.countSequences(p.mover.getId()));
+        bench("Board.hasPlayerWon", p -> p.board.hasPlayerWon(p.mover.getId()) ? 1 : 0);
+
+        Card.JackType[] kinds = Card.JackType.values();
+        String[] kindNames = {"normal", "twoEyedJack", "oneEyedJack"};
+        for (int k = 0; k < kinds.length; k++) {
+            Card.JackType kind = kinds[k];
+            bench("Board.getValidMoves/" + kindNames[k],
+                    p -> p.board.getValidMoves(cardOfKind(p, kind), p.mover.getId()).size());
+        }
+        MoveList generated = new MoveList();
+        for (int k = 0; k < kinds.length; k++) {
+            Card.JackType kind = kinds[k];
+            bench("Board.addValidMoves/" + kindNames[k], p -> {
+                generated.clear();
+                return p.board.addValidMoves(cardOfKind(p, kind), p.mover.getId(), generated);
+            });
+        }
+
+        bench("Board.isDeadCard", p -> {
+            long dead = 0;
+            for (Card card : p.mover.getHand()) {
+                if (p.board.isDeadCard(card, p.mover.getId())) dead++;
+            }
+            return dead;
+        });
+
+        // playCard's board update, taken back each time so the corpus doesn't change;
+        // makeMove goes through the same placement and sequence code as playCard
+        bench("Board.playCard", p -> {
+            long played = 0;
+            for (AIMove move : p.moves) {
+                if (p.board.makeMove(move.getCard(), move.getRow(), move.getCol(), p.mover.getId())) {
+                    p.board.unmakeMove();
+                    played++;
+                }
+            }
+            return played;
+        });
+
+        // Each level keeps one player for the whole benchmark, as it does for a game,
+        // so Chanakya's transposition table carries over between positions
+        for (AIPlayer.AILevel level : AIPlayer.AILevel.values()) {
+            AIPlayer ai = new AIPlayer(level, CORPUS_SEED);
+            bench("AIPlayer.chooseMove/" + level, p -> {
+                AIMove move = ai.chooseMove(p.board, p.mover, p.opponent, p.spentCards, SearchLimits.FAST);
+                return move.getRow() * Board.SIZE + move.getCol();
+            });
+        }
+    }
+
+    public static void main(String[] args) {
+        new Benchmark(args.length > 0 ? args[0] : null).run();
+    }
+}
@@ -1,187 +1,367 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 public class Board {
     public static final int SIZE = 10;
-    private final Cell[][] grid;
-
-    // Nested class to represent each cell on the board
-    private static class Cell {
-        String card;   // e.g., "2H" for 2 of Hearts, "JC" for Jack of Clubs
-        Integer chip;  // null if empty, otherwise player ID who placed chip
-        boolean isCorner;
+    public static final int CELLS = SIZE * SIZE;
+    public static final int MAX_PLAYERS = 2;
+
+    // Correct Sequence board layout (10x10) - Jacks are not on the board.
+    // The layout never changes, so it is shared by every Board instance.
+    private static final String[] LAYOUT = flatten(new String[][] {
+        {"*",  "6D", "7D", "8D", "9D", "10D","QD", "KD", "AD", "*"},
+        {"5D", "3H", "2H", "2S", "3S", "4S", "5S", "6S", "7S", "AC"},
+        {"4D", "4H", "KD", "AD", "AC", "KC", "QC", "10C", "8S", "KC"},
+        {"3D", "5H", "QD", "QH", "10H", "9H", "8H", "9C", "9S", "QC"},
+        {"2D", "6H", "10D", "KH", "3H", "2H", "7H", "8C", "10S", "10C"},
+        {"AS", "7H", "9D", "AH", "4H", "5H", "6H", "7C", "QS", "9C"},
+        {"KS", "8H", "8D", "2C", "3C", "4C", "5C", "6C", "KS", "8C"},
+        {"QS", "9H", "7D", "6D", "5D", "4D", "3D", "2D", "AS", "7C"},
+        {"10S","10H", "QH", "KH", "AH", "2C", "3C", "4C", "5C", "6C"},
+        {"*",  "9S", "8S", "7S", "6S", "5S", "4S", "3S", "2S", "*"}
+    });
+
+    // Bitboards: cell index = row * SIZE + col. Each 100-bit mask is split into
+    // a "lo" word (cells 0-63) and a "hi" word (cells 64-99).
+    private static final long HI_MASK = (1L << (CELLS - 64)) - 1;
+    private static final long CORNERS_LO;
+    private static final long CORNERS_HI;
+
+    // Card id shown on each cell (-1 for corners), and the board cells of each
+    // card id. Every non-Jack card appears exactly twice; Jacks have no cells.
+    private static final int[] CELL_CARD = new int[CELLS];
+    private static final int[][] CARD_CELLS = new int[Card.COUNT][0];
+
+    // Corners in each window of 5; they count for every player
+    private static final byte[] WINDOW_CORNERS = new byte[SequenceWindows.COUNT];
+
+    static {
+        long cornersLo = 0, cornersHi = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (LAYOUT[i].equals("*")) {
+                if (i < 64) cornersLo |= 1L << i; else cornersHi |= 1L << (i - 64);
+                CELL_CARD[i] = -1;
+            } else {
+                int id = Card.fromCode(LAYOUT[i]).getId();
+                int[] cells = CARD_CELLS[id];
+                CARD_CELLS[id] = cells.length == 0 ? new int[]{i} : new int[]{cells[0], i};
+                CELL_CARD[i] = id;
+            }
+        }
+        CORNERS_LO = cornersLo;
+        CORNERS_HI = cornersHi;
+        for (int w = 0; w < SequenceWindows.COUNT; w++) {
+            WINDOW_CORNERS[w] = (byte) SequenceWindows.countIn(w, CORNERS_LO, CORNERS_HI);
+        }
+    }
 
-        Cell(String card, boolean isCorner) {
-            this.card = card;
-            this.chip = null;
-            this.isCorner = isCorner;
+    // Zobrist keys: one random 64-bit key per (player, cell) chip, per side to move
+    // and per copy of each card in a hand. A fixed seed keeps hashes stable across runs.
+    private static final long[][] CHIP_KEYS = new long[MAX_PLAYERS + 1][CELLS];
+    private static final long[] SIDE_KEYS = new long[MAX_PLAYERS + 1];
+    private static final long[][] HAND_KEYS = new long[Card.COUNT][Deck.DECKS];
+
+    static {
+        Random keys = new Random(0x5E9_0E4CEL);
+        for (int id = 1; id <= MAX_PLAYERS; id++) {
+            for (int i = 0; i < CELLS; i++) {
+                CHIP_KEYS[id][i] = keys.nextLong();
+            }
+            SIDE_KEYS[id] = keys.nextLong();
         }
+        for (long[] copies : HAND_KEYS) {
+            for (int copy = 0; copy < copies.length; copy++) {
+                copies[copy] = keys.nextLong();
+            }
+        }
+    }
+
+    // Chip occupancy per player, indexed by player id (index 0 is unused)
+    private final long[] chipsLo = new long[MAX_PLAYERS + 1];
+    private final long[] chipsHi = new long[MAX_PLAYERS + 1];
+
+    // Completed sequences per player, kept up to date on every chip change.
+    // lineStarts[player][line] marks the windows (by position along the line) where
+    // a sequence starts; each line's share of the total is its number of marks.
+    private final int[] sequenceCount = new int[MAX_PLAYERS + 1];
+    private final byte[][] lineStarts = new byte[MAX_PLAYERS + 1][SequenceWindows.LINE_COUNT];
+
+    // Cells in each player's counted sequences: the 5 cells of every start window.
+    // sequenceCover counts the sequences covering a cell (a chip shared by two
+    // sequences has 2), and the mask has a bit set wherever that count is non-zero.
+    private final byte[][] sequenceCover = new byte[MAX_PLAYERS + 1][CELLS];
+    private final long[] sequenceCellsLo = new long[MAX_PLAYERS + 1];
+    private final long[] sequenceCellsHi = new long[MAX_PLAYERS + 1];
+
+    // Chips each player has in each window of 5, leaving out any chip on a corner
+    // (the corner counts for everyone anyway). Kept up to date on every chip change
+    // by touching only the windows through the changed cell.
+    private final byte[][] windowChips = new byte[MAX_PLAYERS + 1][SequenceWindows.COUNT];
+
+    // Zobrist hash of the chips on the board, updated with every chip change
+    private long hash;
+
+    // Undo stack for makeMove/unmakeMove. Each entry packs the cell index, the player
+    // whose chip changed and whether the move placed or removed that chip.
+    private static final int UNDO_REMOVED = 1;
+    private int[] undoStack = new int[16];
+    private int undoSize = 0;
+
+    // Told about cells whose look may have changed: every cell whose chip is placed
+    // or removed, and every cell on a line where the change made, moved or broke a
+    // sequence, so a view can redraw just those cells. A cell may be reported more
+    // than once for one change. Listeners run on the thread that changes the board.
+    public interface ChangeListener {
+        void cellChanged(int row, int col);
+    }
+
+    private ChangeListener changeListener;
+
+    public Board() {
     }
 
-    // Add these methods to your Board.java class:
+    // Independent copy of this position; the copy starts with no moves to undo
+    // and no change listener
+    public Board copy() {
+        Board copy = new Board();
+        System.arraycopy(chipsLo, 0, copy.chipsLo, 0, chipsLo.length);
+        System.arraycopy(chipsHi, 0, copy.chipsHi, 0, chipsHi.length);
+        System.arraycopy(sequenceCount, 0, copy.sequenceCount, 0, sequenceCount.length);
+        System.arraycopy(sequenceCellsLo, 0, copy.sequenceCellsLo, 0, sequenceCellsLo.length);
+        System.arraycopy(sequenceCellsHi, 0, copy.sequenceCellsHi, 0, sequenceCellsHi.length);
+        for (int id = 0; id <= MAX_PLAYERS; id++) {
+            System.arraycopy(lineStarts[id], 0, copy.lineStarts[id], 0, SequenceWindows.LINE_COUNT);
+            System.arraycopy(sequenceCover[id], 0, copy.sequenceCover[id], 0, CELLS);
+            System.arraycopy(windowChips[id], 0, copy.windowChips[id], 0, SequenceWindows.COUNT);
+        }
+        copy.hash = hash;
+        return copy;
+    }
 
     public String getCardAt(int row, int col) {
-        if (row >= 0 && row < SIZE && col >= 0 && col < SIZE) {
-            return grid[row][col].card;
+        if (onBoard(row, col)) {
+            return LAYOUT[row * SIZE + col];
         }
         return "";
     }
 
     public Integer getChipAt(int row, int col) {
-        if (row >= 0 && row < SIZE && col >= 0 && col < SIZE) {
-            return grid[row][col].chip;
+        if (onBoard(row, col)) {
+            int owner = ownerAt(row * SIZE + col);
+            return owner == 0 ? null : Integer.valueOf(owner);
         }
         return null;
     }
 
     public boolean isCornerAt(int row, int col) {
-        if (row >= 0 && row < SIZE && col >= 0 && col < SIZE) {
-            return grid[row][col].isCorner;
+        if (onBoard(row, col)) {
+            return isCorner(row * SIZE + col);
         }
         return false;
     }
 
-    public Board() {
-        grid = new Cell[SIZE][SIZE];
-        initializeBoard();
-    }
-
-    // Initialize the board with correct Sequence layout
-    private void initializeBoard() {
-        // Correct Sequence board layout (10x10) - Jacks are not on the board
-        String[][] layout = {
-            {"*",  "6D", "7D", "8D", "9D", "10D","QD", "KD", "AD", "*"},
-            {"5D", "3H", "2H", "2S", "3S", "4S", "5S", "6S", "7S", "AC"},
-            {"4D", "4H", "KD", "AD", "AC", "KC", "QC", "10C", "8S", "KC"},
-            {"3D", "5H", "QD", "QH", "10H", "9H", "8H", "9C", "9S", "QC"},
-            {"2D", "6H", "10D", "KH", "3H", "2H", "7H", "8C", "10S", "10C"},
-            {"AS", "7H", "9D", "AH", "4H", "5H", "6H", "7C", "QS", "9C"},
-            {"KS", "8H", "8D", "2C", "3C", "4C", "5C", "6C", "KS", "8C"},
-            {"QS", "9H", "7D", "6D", "5D", "4D", "3D", "2D", "AS", "7C"},
-            {"10S","10H", "QH", "KH", "AH", "2C", "3C", "4C", "5C", "6C"},
-            {"*",  "9S", "8S", "7S", "6S", "5S", "4S", "3S", "2S", "*"}
-        };
-
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                boolean corner = layout[r][c].equals("*");
-                grid[r][c] = new Cell(layout[r][c], corner);
-            }
-        }
-    }
-
     // Place a chip for playerId at row, col if allowed
     public boolean placeChip(int row, int col, int playerId) {
-        if (row < 0 || row >= SIZE || col < 0 || col >= SIZE) return false;
+        if (!onBoard(row, col) || !isPlayer(playerId)) return false;
 
-        Cell cell = grid[row][col];
-        if (cell.chip != null) return false; // cell already occupied
+        int index = row * SIZE + col;
+        if (ownerAt(index) != 0) return false; // cell already occupied
 
         // Players can always place on corner "joker" cells or empty cells
-        if (cell.isCorner || cell.chip == null) {
-            cell.chip = playerId;
+        setChip(index, playerId);
+        return true;
+    }
+
+    // Play a card according to Sequence rules
+    public boolean playCard(Player player, Card card, int row, int col) {
+        if (!onBoard(row, col) || !isPlayer(player.getId())) return false;
+
+        int index = row * SIZE + col;
+        if (card.isOneEyedJack()) {
+            // One-eyed Jack - remove an opponent's chip
+            return removeOpponentChip(index, player.getId()) != 0;
+        }
+        if (canPlace(card, index)) {
+            setChip(index, player.getId());
             return true;
         }
         return false;
     }
 
-    // Play a card according to Sequence rules
-    public boolean playCard(Player player, Card card, int row, int col) {
-        if (row < 0 || row >= SIZE || col < 0 || col >= SIZE) return false;
+    // Play a card like playCard, but remember the change so unmakeMove can revert it.
+    // Used by search code to try a move and take it back without copying the board.
+    public boolean makeMove(Card card, int row, int col, int playerId) {
+        if (!onBoard(row, col) || !isPlayer(playerId)) return false;
+
+        int index = row * SIZE + col;
+        int record;
+        if (card.isOneEyedJack()) {
+            int owner = removeOpponentChip(index, playerId);
+            if (owner == 0) return false;
+            record = (index << 3) | (owner << 1) | UNDO_REMOVED;
+        } else {
+            if (!canPlace(card, index)) return false;
+            setChip(index, playerId);
+            record = (index << 3) | (playerId << 1);
+        }
 
-        // Two-eyed Jack (wild placement) - Hearts or Diamonds
-        boolean isTwoEyedJack = card.isJack() &&
-                (card.getSuit().equals("Hearts") || card.getSuit().equals("Diamonds"));
+        if (undoSize == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoSize * 2);
+        }
+        undoStack[undoSize++] = record;
+        return true;
+    }
 
-        // One-eyed Jack (remove opponent's chip) - Spades or Clubs
-        boolean isOneEyedJack = card.isJack() &&
-                (card.getSuit().equals("Spades") || card.getSuit().equals("Clubs"));
+    // Revert the most recent makeMove that has not been reverted yet
+    public void unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to unmake");
+        }
 
-        if (isTwoEyedJack) {
-            // Can place anywhere that's not already occupied by a chip
-            Cell cell = grid[row][col];
-            if (cell.chip == null) {
-                return placeChip(row, col, player.getId());
-            }
-            return false;
-        } else if (isOneEyedJack) {
-            return removeOpponentChip(row, col, player.getId());
+        int record = undoStack[--undoSize];
+        int index = record >>> 3;
+        int playerId = (record >>> 1) & 3;
+        if ((record & UNDO_REMOVED) != 0) {
+            setChip(index, playerId);
         } else {
-            // Normal card play - must match the board card exactly
-            Cell cell = grid[row][col];
-            String cardString = card.getRank() + card.getSuit().charAt(0); // e.g., "2H"
-            
-            if (cell.card.equals(cardString) && cell.chip == null && !cell.isCorner) {
-                return placeChip(row, col, player.getId());
-            }
+            clearChip(index, playerId);
         }
-        return false;
     }
 
-    private boolean removeOpponentChip(int row, int col, int playerId) {
-        if (row < 0 || row >= SIZE || col < 0 || col >= SIZE) return false;
-        Cell cell = grid[row][col];
-        
+    // Whether a placing card (normal card or two-eyed Jack) can go on this cell
+    private boolean canPlace(Card card, int index) {
+        if (ownerAt(index) != 0) return false;
+        // Two-eyed Jacks are wild; normal cards must match the board card exactly (never a corner)
+        return card.isTwoEyedJack() || CELL_CARD[index] == card.getId();
+    }
+
+    // Remove an opponent's chip for a one-eyed Jack. Returns the removed chip's owner, or 0.
+    private int removeOpponentChip(int index, int playerId) {
+        int owner = ownerAt(index);
+
         // Can't remove from corners or your own chips
-        if (cell.chip == null || cell.chip == playerId || cell.isCorner) {
-            return false;
+        if (owner == 0 || owner == playerId || isCorner(index)) {
+            return 0;
         }
-        
+
         // Check if this chip is part of a completed sequence - if so, protect it
-        if (isChipPartOfSequence(row, col, cell.chip)) {
-            return false; // Cannot remove chips that are part of completed sequences
+        if (isChipPartOfSequence(index, owner)) {
+            return 0; // Cannot remove chips that are part of completed sequences
         }
-        
+
         // Can remove opponent's chip that's not part of a sequence
-        cell.chip = null;
+        clearChip(index, owner);
+        return owner;
+    }
+
+    // All chip changes go through setChip/clearChip so derived state stays in step
+    private void setChip(int index, int playerId) {
+        if (index < 64) {
+            chipsLo[playerId] |= 1L << index;
+        } else {
+            chipsHi[playerId] |= 1L << (index - 64);
+        }
+        hash ^= CHIP_KEYS[playerId][index];
+        updateWindows(index, playerId, 1);
+        updateSequences(index, playerId);
+        if (changeListener != null) publishCell(index);
+    }
+
+    private void clearChip(int index, int playerId) {
+        if (index < 64) {
+            chipsLo[playerId] &= ~(1L << index);
+        } else {
+            chipsHi[playerId] &= ~(1L << (index - 64));
+        }
+        hash ^= CHIP_KEYS[playerId][index];
+        updateWindows(index, playerId, -1);
+        updateSequences(index, playerId);
+        if (changeListener != null) publishCell(index);
+    }
+
+    private void updateWindows(int index, int playerId, int change) {
+        if (isCorner(index)) return;
+        byte[] counts = windowChips[playerId];
+        for (int w : SequenceWindows.THROUGH[index]) {
+            counts[w] += change;
+        }
+    }
+
+    // Listen for chip changes on this board, or stop listening with null
+    public void setChangeListener(ChangeListener listener) {
+        this.changeListener = listener;
+    }
+
+    private void publishCell(int index) {
+        changeListener.cellChanged(index / SIZE, index % SIZE);
+    }
+
+    // Every cell of a line: the first cell of each window, then the rest of the last
+    private void publishLine(int line) {
+        int[] windows = SequenceWindows.LINE_WINDOWS[line];
+        for (int w : windows) {
+            publishCell(SequenceWindows.CELLS[w][0]);
+        }
+        int[] last = SequenceWindows.CELLS[windows[windows.length - 1]];
+        for (int i = 1; i < last.length; i++) {
+            publishCell(last[i]);
+        }
+    }
+
+    // How many of window w's cells the player holds, corners included
+    public int windowCount(int playerId, int w) {
+        return isPlayer(playerId) ? windowChips[playerId][w] + WINDOW_CORNERS[w] : WINDOW_CORNERS[w];
+    }
+
+    // Whether window w holds no other player's chip, so the player could still fill it
+    public boolean isWindowOpen(int playerId, int w) {
+        for (int id = 1; id <= MAX_PLAYERS; id++) {
+            if (id != playerId && windowChips[id][w] != 0) return false;
+        }
         return true;
     }
 
-    // Add this new helper method to Board.java
-    private boolean isChipPartOfSequence(int row, int col, int playerId) {
-        // Check all four directions from this cell
-        int[][] directions = {
-            {0, 1},   // horizontal right
-            {1, 0},   // vertical down
-            {1, 1},   // diagonal down-right
-            {1, -1}   // diagonal down-left
-        };
-        
-        for (int[] dir : directions) {
-            // Check forward and backward in this direction to find sequences of 5
-            for (int startOffset = -4; startOffset <= 0; startOffset++) {
-                int sequenceCount = 0;
-                boolean thisPositionInSequence = false;
-                
-                for (int i = 0; i < 5; i++) {
-                    int checkRow = row + (startOffset + i) * dir[0];
-                    int checkCol = col + (startOffset + i) * dir[1];
-                    
-                    if (checkRow >= 0 && checkRow < SIZE && 
-                        checkCol >= 0 && checkCol < SIZE) {
-                        
-                        Cell checkCell = grid[checkRow][checkCol];
-                        
-                        if ((checkCell.chip != null && checkCell.chip == playerId) || checkCell.isCorner) {
-                            sequenceCount++;
-                            if (checkRow == row && checkCol == col) {
-                                thisPositionInSequence = true;
-                            }
-                        } else {
-                            break; // Sequence broken
-                        }
-                    } else {
-                        break; // Out of bounds
-                    }
-                }
-                
-                // If we found a sequence of 5 and this position is part of it
-                if (sequenceCount == 5 && thisPositionInSequence) {
-                    return true;
-                }
+    // 64-bit Zobrist key of the chip position. Equal positions reached through
+    // different move orders get the same key.
+    public long hash() {
+        return hash;
+    }
+
+    // Position key that also tells apart whose turn it is
+    public long hash(int sideToMove) {
+        return isPlayer(sideToMove) ? hash ^ SIDE_KEYS[sideToMove] : hash;
+    }
+
+    // Position key including the side to move and the cards in that player's hand
+    public long hash(int sideToMove, Player player) {
+        return hash(sideToMove) ^ handKey(player);
+    }
+
+    // Zobrist key of a hand's contents, independent of card order
+    public static long handKey(Player player) {
+        long key = 0;
+        long cards = player.getHandMask();
+        while (cards != 0) {
+            int id = Long.numberOfTrailingZeros(cards);
+            int copies = Math.min(player.countOf(id), Deck.DECKS);
+            for (int copy = 0; copy < copies; copy++) {
+                key ^= HAND_KEYS[id][copy];
+            }
+            cards &= cards - 1;
+        }
+        return key;
+    }
+
+    // Check whether the chip at index lies inside any full line of 5 for playerId
+    private boolean isChipPartOfSequence(int index, int playerId) {
+        for (int w : SequenceWindows.THROUGH[index]) {
+            if (windowCount(playerId, w) == SequenceWindows.LENGTH) {
+                return true;
             }
         }
-        
+
         return false;
     }
 
@@ -192,229 +372,261 @@ public class Board {
 
     // Count the number of sequences of 5 for a player
     public int countSequences(int playerId) {
-        List<List<int[]>> allSequences = findAllValidSequences(playerId);
-        return allSequences.size();
-    }
-
-    // Find all valid sequences considering the sharing rule
-    private List<List<int[]>> findAllValidSequences(int playerId) {
-        List<List<int[]>> validSequences = new ArrayList<>();
-        List<List<int[]>> allPossibleSequences = findAllPossibleSequences(playerId);
-        
-        // Use a greedy approach to select non-overlapping sequences (max 1 shared chip)
-        boolean[] used = new boolean[allPossibleSequences.size()];
-        
-        for (int i = 0; i < allPossibleSequences.size(); i++) {
-            if (used[i]) continue;
-            
-            List<int[]> currentSeq = allPossibleSequences.get(i);
-            validSequences.add(currentSeq);
-            used[i] = true;
-            
-            // Mark sequences that share more than 1 chip as unusable
-            for (int j = i + 1; j < allPossibleSequences.size(); j++) {
-                if (used[j]) continue;
-                
-                List<int[]> otherSeq = allPossibleSequences.get(j);
-                if (countSharedChips(currentSeq, otherSeq) > 1) {
-                    used[j] = true; // Can't use this sequence
+        return isPlayer(playerId) ? sequenceCount[playerId] : 0;
+    }
+
+    // Whether the cell is one of the 5 cells of a counted sequence of playerId.
+    // A run longer than 5 counts once, so only its first 5 cells are in it.
+    public boolean isInSequence(int row, int col, int playerId) {
+        return onBoard(row, col) && isPlayer(playerId)
+                && testBit(sequenceCellsLo[playerId], sequenceCellsHi[playerId], row * SIZE + col);
+    }
+
+    // Recount playerId's sequences on the lines through a changed cell.
+    // A sequence is a maximal run of 5+ chips (corners included) in one direction,
+    // counted once at the window where the run starts. Two runs in the same line never
+    // overlap and runs in different directions share at most one chip, so every run
+    // satisfies the sharing rule and counting run starts is enough.
+    private void updateSequences(int index, int playerId) {
+        long ownLo = chipsLo[playerId] | CORNERS_LO;
+        long ownHi = chipsHi[playerId] | CORNERS_HI;
+        byte[] perLine = lineStarts[playerId];
+
+        for (int line : SequenceWindows.LINES_THROUGH[index]) {
+            int[] windows = SequenceWindows.LINE_WINDOWS[line];
+            int starts = 0;
+            boolean previousFull = false;
+            for (int i = 0; i < windows.length; i++) {
+                boolean full = SequenceWindows.isFull(windows[i], ownLo, ownHi);
+                if (full && !previousFull) {
+                    starts |= 1 << i;
                 }
+                previousFull = full;
+            }
+            int before = perLine[line];
+            if (starts != before) {
+                // Sequences on this line have grown, shifted or gone
+                if (changeListener != null) publishLine(line);
+                sequenceCount[playerId] += Integer.bitCount(starts) - Integer.bitCount(before);
+                coverSequences(playerId, windows, before & ~starts, -1);
+                coverSequences(playerId, windows, starts & ~before, 1);
+                perLine[line] = (byte) starts;
             }
         }
-        
-        return validSequences;
-    }
-
-    // Find all possible sequences of exactly 5 chips
-    private List<List<int[]>> findAllPossibleSequences(int playerId) {
-        List<List<int[]>> allSequences = new ArrayList<>();
-        
-        int[][] directions = {
-            {0, 1},   // horizontal right
-            {1, 0},   // vertical down
-            {1, 1},   // diagonal down-right
-            {1, -1}   // diagonal down-left
-        };
-        
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                for (int[] dir : directions) {
-                    List<int[]> sequence = getSequenceFromPosition(r, c, dir[0], dir[1], playerId);
-                    if (sequence != null && sequence.size() == 5) {
-                        // Check if this exact sequence is already found
-                        if (!isDuplicateSequence(allSequences, sequence)) {
-                            allSequences.add(sequence);
-                        }
-                    }
+    }
+
+    // Add or take away the cells of the marked windows of a line in the player's
+    // sequence cells
+    private void coverSequences(int playerId, int[] windows, int marks, int change) {
+        byte[] cover = sequenceCover[playerId];
+        for (; marks != 0; marks &= marks - 1) {
+            for (int cell : SequenceWindows.CELLS[windows[Integer.numberOfTrailingZeros(marks)]]) {
+                cover[cell] += change;
+                long bit = 1L << (cell & 63);
+                boolean covered = cover[cell] != 0;
+                if (cell < 64) {
+                    sequenceCellsLo[playerId] = covered ? sequenceCellsLo[playerId] | bit : sequenceCellsLo[playerId] & ~bit;
+                } else {
+                    sequenceCellsHi[playerId] = covered ? sequenceCellsHi[playerId] | bit : sequenceCellsHi[playerId] & ~bit;
                 }
             }
         }
-        
-        return allSequences;
-    }
-
-    // Get a sequence of exactly 5 chips starting from a position
-    private List<int[]> getSequenceFromPosition(int startRow, int startCol, int deltaR, int deltaC, int playerId) {
-        List<int[]> sequence = new ArrayList<>();
-        
-        // Check if we can form exactly 5 consecutive chips
-        for (int i = 0; i < 5; i++) {
-            int r = startRow + i * deltaR;
-            int c = startCol + i * deltaC;
-            
-            if (r < 0 || r >= SIZE || c < 0 || c >= SIZE) return null;
-            
-            Cell cell = grid[r][c];
-            if (!((cell.chip != null && cell.chip == playerId) || cell.isCorner)) {
-                return null;
+    }
+
+    // Check whether a chip for playerId at row, col would fill some line of 5,
+    // counting the player's chips and the corners around it
+    public boolean wouldCompleteLine(int row, int col, int playerId) {
+        if (!onBoard(row, col) || !isPlayer(playerId)) return false;
+
+        int index = row * SIZE + col;
+        // A window through the cell fills if the player holds all of it but this cell
+        int missing = isCorner(index) || ownerAt(index) == playerId ? 0 : 1;
+        for (int w : SequenceWindows.THROUGH[index]) {
+            if (windowCount(playerId, w) + missing == SequenceWindows.LENGTH) {
+                return true;
             }
-            
-            sequence.add(new int[]{r, c});
-        }
-        
-        // Check that there's no valid chip before (to ensure we start at the beginning)
-        int beforeR = startRow - deltaR;
-        int beforeC = startCol - deltaC;
-        if (beforeR >= 0 && beforeR < SIZE && beforeC >= 0 && beforeC < SIZE) {
-            Cell beforeCell = grid[beforeR][beforeC];
-            if ((beforeCell.chip != null && beforeCell.chip == playerId) || beforeCell.isCorner) {
-                return null; // This is not the start of the sequence
+        }
+
+        return false;
+    }
+
+    // Check if a card is "dead" (both board positions occupied by opponent)
+    public boolean isDeadCard(Card card, int playerId) {
+        if (card.isJack()) return false; // Jacks are never dead
+
+        int blockedCount = 0;
+        for (int index : CARD_CELLS[card.getId()]) {
+            int owner = ownerAt(index);
+            if (owner != 0 && owner != playerId) {
+                blockedCount++;
+            }
+        }
+        return blockedCount >= 2; // Both positions blocked
+    }
+
+    // How many of this card's board cells already hold a chip (0-2; always 0 for Jacks)
+    public int countChipsOnCard(Card card) {
+        int taken = 0;
+        for (int index : CARD_CELLS[card.getId()]) {
+            if (ownerAt(index) != 0) {
+                taken++;
             }
         }
-        
-        return sequence;
+        return taken;
     }
 
-    // Count how many chips are shared between two sequences
-    private int countSharedChips(List<int[]> seq1, List<int[]> seq2) {
-        int sharedCount = 0;
-        
-        for (int[] pos1 : seq1) {
-            for (int[] pos2 : seq2) {
-                if (pos1[0] == pos2[0] && pos1[1] == pos2[1]) {
-                    sharedCount++;
+    // Get valid moves for a card as {row, col} pairs
+    public List<int[]> getValidMoves(Card card, int playerId) {
+        MoveList moves = new MoveList(card.isJack() ? CELLS : 2);
+        addValidMoves(card, playerId, moves);
+
+        List<int[]> validMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            validMoves.add(new int[]{MoveList.row(move), MoveList.col(move)});
+        }
+        return validMoves;
+    }
+
+    // Append the card's valid moves to the list in row-major order, without
+    // allocating; returns how many were added
+    public int addValidMoves(Card card, int playerId, MoveList moves) {
+        int before = moves.size();
+        if (!card.isJack()) {
+            // Normal card - only its two board positions can ever be played
+            for (int index : CARD_CELLS[card.getId()]) {
+                if (ownerAt(index) == 0) {
+                    moves.add(MoveList.PLACE, card, index);
                 }
             }
+            return moves.size() - before;
         }
-        
-        return sharedCount;
-    }
-
-    // Check if this sequence already exists in the list
-    private boolean isDuplicateSequence(List<List<int[]>> existingSequences, List<int[]> newSequence) {
-        for (List<int[]> existing : existingSequences) {
-            if (existing.size() != newSequence.size()) continue;
-            
-            boolean allMatch = true;
-            for (int i = 0; i < existing.size(); i++) {
-                int[] existingPos = existing.get(i);
-                int[] newPos = newSequence.get(i);
-                if (existingPos[0] != newPos[0] || existingPos[1] != newPos[1]) {
-                    allMatch = false;
-                    break;
+
+        long targetsLo;
+        long targetsHi;
+        if (card.isTwoEyedJack()) {
+            targetsLo = ~occupiedLo();
+            targetsHi = ~occupiedHi() & HI_MASK;
+        } else {
+            targetsLo = opponentsLo(playerId) & ~CORNERS_LO;
+            targetsHi = opponentsHi(playerId) & ~CORNERS_HI;
+
+            // Chips inside an opponent's full line of 5 are protected from removal
+            for (int owner = 1; owner <= MAX_PLAYERS; owner++) {
+                if (owner == playerId || sequenceCount[owner] == 0) continue;
+                for (int w = 0; w < SequenceWindows.COUNT; w++) {
+                    if (windowCount(owner, w) == SequenceWindows.LENGTH) {
+                        targetsLo &= ~SequenceWindows.MASK_LO[w];
+                        targetsHi &= ~SequenceWindows.MASK_HI[w];
+                    }
                 }
             }
-            
-            if (allMatch) return true;
         }
-        
-        return false;
+
+        int kind = card.isOneEyedJack() ? MoveList.REMOVE : MoveList.PLACE;
+        addCells(moves, kind, card, targetsLo, 0);
+        addCells(moves, kind, card, targetsHi, 64);
+        return moves.size() - before;
     }
 
-    private boolean hasPlayerChip(int row, int col, int playerId) {
-        return grid[row][col].chip != null && grid[row][col].chip == playerId;
+    // Append a move for every set bit of mask, in row-major order
+    private static void addCells(MoveList moves, int kind, Card card, long mask, int offset) {
+        while (mask != 0) {
+            moves.add(kind, card, offset + Long.numberOfTrailingZeros(mask));
+            mask &= mask - 1;
+        }
     }
 
-    // Find a sequence of 5 starting from a cell, marking used cells
-    private boolean findSequenceFromCell(int row, int col, int playerId, boolean[][] used) {
-        int[][] directions = {
-                {0, 1},   // horizontal right
-                {1, 0},   // vertical down
-                {1, 1},   // diagonal down-right
-                {1, -1}   // diagonal down-left
-        };
+    // Whether the player could play the card on this cell now
+    public boolean isValidMove(Card card, int playerId, int row, int col) {
+        if (!onBoard(row, col) || !isPlayer(playerId)) return false;
 
-        for (int[] dir : directions) {
-            if (isValidSequence(row, col, dir[0], dir[1], playerId, 5)) {
-                // Mark these cells as used
-                for (int i = 0; i < 5; i++) {
-                    int r = row + i * dir[0];
-                    int c = col + i * dir[1];
-                    used[r][c] = true;
-                }
-                return true;
-            }
+        int index = row * SIZE + col;
+        if (card.isOneEyedJack()) {
+            int owner = ownerAt(index);
+            return owner != 0 && owner != playerId && !isCorner(index) && !isChipPartOfSequence(index, owner);
         }
-        return false;
+        return canPlace(card, index);
     }
 
-    private boolean isValidSequence(int startRow, int startCol, int deltaR, int deltaC, int playerId, int length) {
-        for (int i = 0; i < length; i++) {
-            int r = startRow + i * deltaR;
-            int c = startCol + i * deltaC;
-            
-            if (r < 0 || r >= SIZE || c < 0 || c >= SIZE) return false;
-            
-            Cell cell = grid[r][c];
-            // Valid if it's the player's chip or a corner
-            if (!((cell.chip != null && cell.chip == playerId) || cell.isCorner)) {
-                return false;
+    // Whether the card has any valid move, like !getValidMoves(...).isEmpty()
+    // but without building the list
+    public boolean hasValidMove(Card card, int playerId) {
+        if (!card.isJack()) {
+            for (int index : CARD_CELLS[card.getId()]) {
+                if (ownerAt(index) == 0) return true;
             }
+            return false;
+        }
+        if (card.isTwoEyedJack()) {
+            return ~occupiedLo() != 0 || (~occupiedHi() & HI_MASK) != 0;
         }
-        return true;
-    }
 
-    // Check if a card is "dead" (both board positions occupied by opponent)
-    public boolean isDeadCard(Card card, int playerId) {
-        if (card.isJack()) return false; // Jacks are never dead
-        
-        String cardString = card.getRank() + card.getSuit().charAt(0);
-        int blockedCount = 0;
-        
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                if (grid[r][c].card.equals(cardString)) {
-                    if (grid[r][c].chip != null && grid[r][c].chip != playerId) {
-                        blockedCount++;
-                    }
-                }
+        long targetsLo = opponentsLo(playerId) & ~CORNERS_LO;
+        long targetsHi = opponentsHi(playerId) & ~CORNERS_HI;
+        for (int offset = 0; offset < CELLS; offset += 64) {
+            long mask = offset == 0 ? targetsLo : targetsHi;
+            while (mask != 0) {
+                int index = offset + Long.numberOfTrailingZeros(mask);
+                if (!isChipPartOfSequence(index, ownerAt(index))) return true;
+                mask &= mask - 1;
             }
         }
-        return blockedCount >= 2; // Both positions blocked
+        return false;
     }
 
-    // Get valid moves for a card
-    public java.util.List<int[]> getValidMoves(Card card, int playerId) {
-        java.util.List<int[]> validMoves = new java.util.ArrayList<>();
-        
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                if (isValidMove(card, r, c, playerId)) {
-                    validMoves.add(new int[]{r, c});
-                }
+    // Player id owning the chip at index, or 0 if the cell is empty
+    private int ownerAt(int index) {
+        for (int id = 1; id <= MAX_PLAYERS; id++) {
+            if (testBit(chipsLo[id], chipsHi[id], index)) {
+                return id;
             }
         }
-        return validMoves;
+        return 0;
     }
 
-    private boolean isValidMove(Card card, int row, int col, int playerId) {
-        if (row < 0 || row >= SIZE || col < 0 || col >= SIZE) return false;
-        
-        Cell cell = grid[row][col];
-        
-        boolean isTwoEyedJack = card.isJack() && 
-                (card.getSuit().equals("Hearts") || card.getSuit().equals("Diamonds"));
-        boolean isOneEyedJack = card.isJack() && 
-                (card.getSuit().equals("Spades") || card.getSuit().equals("Clubs"));
-        
-        if (isTwoEyedJack) {
-            return cell.chip == null;
-        } else if (isOneEyedJack) {
-            return cell.chip != null && cell.chip != playerId && !cell.isCorner;
-        } else {
-            String cardString = card.getRank() + card.getSuit().charAt(0);
-            return cell.card.equals(cardString) && cell.chip == null && !cell.isCorner;
+    private long occupiedLo() {
+        long occupied = 0;
+        for (int id = 1; id <= MAX_PLAYERS; id++) occupied |= chipsLo[id];
+        return occupied;
+    }
+
+    private long occupiedHi() {
+        long occupied = 0;
+        for (int id = 1; id <= MAX_PLAYERS; id++) occupied |= chipsHi[id];
+        return occupied;
+    }
+
+    private long opponentsLo(int playerId) {
+        return isPlayer(playerId) ? occupiedLo() & ~chipsLo[playerId] : occupiedLo();
+    }
+
+    private long opponentsHi(int playerId) {
+        return isPlayer(playerId) ? occupiedHi() & ~chipsHi[playerId] : occupiedHi();
+    }
+
+    private static boolean isCorner(int index) {
+        return testBit(CORNERS_LO, CORNERS_HI, index);
+    }
+
+    private static boolean isPlayer(int playerId) {
+        return playerId >= 1 && playerId <= MAX_PLAYERS;
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 0 && row < SIZE && col >= 0 && col < SIZE;
+    }
+
+    private static boolean testBit(long lo, long hi, int index) {
+        return index < 64 ? (lo & (1L << index)) != 0 : (hi & (1L << (index - 64))) != 0;
+    }
+
+    private static String[] flatten(String[][] layout) {
+        String[] cells = new String[SIZE * SIZE];
+        for (int r = 0; r < SIZE; r++) {
+            System.arraycopy(layout[r], 0, cells, r * SIZE, SIZE);
         }
+        return cells;
     }
 
     // For debugging: print board state showing chip owners and corners
@@ -424,17 +636,18 @@ public class Board {
             System.out.printf("%3d", c);
         }
         System.out.println();
-        
+
         for (int r = 0; r < SIZE; r++) {
             System.out.printf("%2d ", r);
             for (int c = 0; c < SIZE; c++) {
-                Cell cell = grid[r][c];
-                if (cell.isCorner) {
+                int index = r * SIZE + c;
+                int owner = ownerAt(index);
+                if (isCorner(index)) {
                     System.out.print(" * ");
-                } else if (cell.chip == null) {
+                } else if (owner == 0) {
                     System.out.print(" . ");
                 } else {
-                    System.out.print(" " + cell.chip + " ");
+                    System.out.print(" " + owner + " ");
                 }
             }
             System.out.println();
@@ -445,9 +658,9 @@ public class Board {
     public void printBoardWithCards() {
         for (int r = 0; r < SIZE; r++) {
             for (int c = 0; c < SIZE; c++) {
-                System.out.printf("%4s", grid[r][c].card);
+                System.out.printf("%4s", LAYOUT[r * SIZE + c]);
             }
             System.out.println();
         }
     }
-}
\ No newline at end of file
+}
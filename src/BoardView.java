@@ -0,0 +1,273 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+
+// The 10x10 board, painted directly by one component: each cell's card, its chip
+// (a star when the chip is part of a completed sequence), green outlines on the cells
+// the selected card can be played on, and the cell under the mouse. Card names and
+// chips come ready-drawn from a TileAtlas, so a repaint only fills rectangles and
+// copies tiles. Clicks and hovering are mapped to cells by position.
+//
+// Only cells that change are repainted: the board reports the cells its chip changes
+// touch (including chips joining or leaving a sequence), and a new selected card
+// repaints just the cells whose outline flips.
+public class BoardView extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    public static final int CELL_SIZE = 80;
+
+    private static final int SIZE = Board.SIZE;
+    private static final int GAP = 1;        // black grid line between cells
+    private static final int MARGIN = 10;    // black border around the board
+
+    private static final Color GRID_COLOR = Color.BLACK;
+    private static final Color PLAYER1_COLOR = new Color(0xf7b173);           // Custom orange/peach
+    private static final Color PLAYER2_COLOR = new Color(0x90d9f4);           // Custom light blue
+    private static final Color PLAYER1_SEQUENCE_COLOR = new Color(0xfc7d56);  // Custom coral/red-orange
+    private static final Color PLAYER2_SEQUENCE_COLOR = new Color(0x1fbbf5);  // Custom bright blue
+    private static final Color CORNER_COLOR = Color.YELLOW;
+    private static final Color EMPTY_COLOR = Color.WHITE;
+    private static final Color HOVER_COLOR = Color.CYAN;
+    private static final Color HIGHLIGHT_COLOR = Color.YELLOW;
+    private static final Color TARGET_COLOR = Color.GREEN;
+    private static final Color RED_SUIT = Color.RED;
+    private static final Color BLACK_SUIT = Color.BLACK;
+    private static final Stroke CELL_STROKE = new BasicStroke(1);
+    private static final Stroke TARGET_STROKE = new BasicStroke(3);
+
+    // What to call the board's cells for clicks
+    public interface CellListener {
+        void cellClicked(int row, int col);
+    }
+
+    private final Board board;
+    // Each cell's face in the atlas; faces are "10♥" and so on, or FREE on corners
+    private final int[] faceOf = new int[Board.CELLS];
+    private final String[] faceLabels;
+    private final Color[] faceColors;
+    private TileAtlas atlas;   // made on first paint, and again if the screen scale changes
+
+    private final boolean[] targets = new boolean[Board.CELLS];    // cells the selected card can go on
+    private final boolean[] newTargets = new boolean[Board.CELLS];
+    private final MoveList targetMoves = new MoveList();
+    private CellListener listener;
+    private int hoverCell = -1;
+    private int highlightCell = -1;
+    private double highlightStrength;   // 1 for full highlight colour, fading to 0
+
+    public BoardView(Board board) {
+        this.board = board;
+        board.setChangeListener((row, col) -> repaintCell(row * SIZE + col));
+        java.util.Map<String, Integer> faces = new java.util.LinkedHashMap<>();
+        java.util.List<Color> colors = new java.util.ArrayList<>();
+        for (int cell = 0; cell < Board.CELLS; cell++) {
+            int row = cell / SIZE;
+            int col = cell % SIZE;
+            String label = "FREE";
+            Color color = BLACK_SUIT;
+            if (!board.isCornerAt(row, col)) {
+                Card card = Card.fromCode(board.getCardAt(row, col));
+                label = card.getRank() + suitSymbol(card.getSuit());
+                boolean red = card.getSuit().equals("Hearts") || card.getSuit().equals("Diamonds");
+                color = red ? RED_SUIT : BLACK_SUIT;
+            }
+            if (!faces.containsKey(label)) {
+                faces.put(label, faces.size());
+                colors.add(color);
+            }
+            faceOf[cell] = faces.get(label);
+        }
+        faceLabels = faces.keySet().toArray(new String[0]);
+        faceColors = colors.toArray(new Color[0]);
+
+        int side = 2 * MARGIN + SIZE * CELL_SIZE + (SIZE - 1) * GAP;
+        setPreferredSize(new Dimension(side, side));
+        setOpaque(true);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int cell = cellAt(e.getX(), e.getY());
+                if (cell >= 0 && listener != null) {
+                    listener.cellClicked(cell / SIZE, cell % SIZE);
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHoverCell(cellAt(e.getX(), e.getY()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHoverCell(-1);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    public void setCellListener(CellListener listener) {
+        this.listener = listener;
+    }
+
+    // Outline the cells where the player can play this card; null clears the outlines
+    public void setSelectedCard(Card card, int playerId) {
+        java.util.Arrays.fill(newTargets, false);
+        if (card != null) {
+            targetMoves.clear();
+            board.addValidMoves(card, playerId, targetMoves);
+            for (int i = 0; i < targetMoves.size(); i++) {
+                newTargets[MoveList.cell(targetMoves.get(i))] = true;
+            }
+        }
+        update(targets, newTargets);
+    }
+
+    // Copy new flags over the current ones, repainting the cells that differ
+    private void update(boolean[] current, boolean[] next) {
+        for (int cell = 0; cell < Board.CELLS; cell++) {
+            if (current[cell] != next[cell]) {
+                current[cell] = next[cell];
+                repaintCell(cell);
+            }
+        }
+    }
+
+    // Light up one cell, such as the AI's last move, until clearHighlight
+    public void setHighlight(int row, int col) {
+        setHighlight(row, col, 1);
+    }
+
+    // Light up one cell partly: strength 1 is the full highlight colour, 0 the cell's
+    // own background, so stepping it down fades the highlight out
+    public void setHighlight(int row, int col, double strength) {
+        repaintCell(highlightCell);
+        highlightCell = row * SIZE + col;
+        highlightStrength = strength;
+        repaintCell(highlightCell);
+    }
+
+    public void clearHighlight() {
+        repaintCell(highlightCell);
+        highlightCell = -1;
+    }
+
+    private void setHoverCell(int cell) {
+        if (cell == hoverCell) return;
+        repaintCell(hoverCell);
+        hoverCell = cell;
+        repaintCell(hoverCell);
+    }
+
+    // Cell under a point, or -1 for the grid lines and margin
+    private int cellAt(int x, int y) {
+        int pitch = CELL_SIZE + GAP;
+        int bx = x - MARGIN;
+        int by = y - MARGIN;
+        if (bx < 0 || by < 0) return -1;
+        int col = bx / pitch;
+        int row = by / pitch;
+        if (row >= SIZE || col >= SIZE || bx % pitch >= CELL_SIZE || by % pitch >= CELL_SIZE) return -1;
+        return row * SIZE + col;
+    }
+
+    private int cellX(int cell) {
+        return MARGIN + (cell % SIZE) * (CELL_SIZE + GAP);
+    }
+
+    private int cellY(int cell) {
+        return MARGIN + (cell / SIZE) * (CELL_SIZE + GAP);
+    }
+
+    private void repaintCell(int cell) {
+        if (cell >= 0) {
+            repaint(cellX(cell), cellY(cell), CELL_SIZE, CELL_SIZE);
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics graphics) {
+        Graphics2D g = (Graphics2D) graphics;
+        double scale = g.getTransform().getScaleX();
+        if (atlas == null || atlas.scale() != scale) {
+            atlas = new TileAtlas(faceLabels, faceColors, CELL_SIZE, scale);
+        }
+
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.setColor(GRID_COLOR);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        for (int cell = 0; cell < Board.CELLS; cell++) {
+            int x = cellX(cell);
+            int y = cellY(cell);
+            if (clip.intersects(x, y, CELL_SIZE, CELL_SIZE)) {
+                paintCell(g, cell, x, y);
+            }
+        }
+    }
+
+    private void paintCell(Graphics2D g, int cell, int x, int y) {
+        int row = cell / SIZE;
+        int col = cell % SIZE;
+        Integer chipOwner = board.getChipAt(row, col);
+        boolean sequence = chipOwner != null && board.isInSequence(row, col, chipOwner);
+
+        Color background;
+        if (cell == hoverCell && targets[cell]) {
+            background = HOVER_COLOR;
+        } else if (chipOwner != null) {
+            if (sequence) {
+                background = chipOwner == 1 ? PLAYER1_SEQUENCE_COLOR : PLAYER2_SEQUENCE_COLOR;
+            } else {
+                background = chipOwner == 1 ? PLAYER1_COLOR : PLAYER2_COLOR;
+            }
+        } else if (board.isCornerAt(row, col)) {
+            background = CORNER_COLOR;
+        } else {
+            background = EMPTY_COLOR;
+        }
+        if (cell == highlightCell) {
+            background = blend(HIGHLIGHT_COLOR, background, highlightStrength);
+        }
+        g.setColor(background);
+        g.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+
+        // Legal cells for the selected card get a thick green outline
+        if (targets[cell]) {
+            g.setColor(TARGET_COLOR);
+            g.setStroke(TARGET_STROKE);
+            g.drawRect(x + 1, y + 1, CELL_SIZE - 3, CELL_SIZE - 3);
+        } else {
+            g.setColor(GRID_COLOR);
+            g.setStroke(CELL_STROKE);
+            g.drawRect(x, y, CELL_SIZE - 1, CELL_SIZE - 1);
+        }
+
+        // The card name sits in the middle, or at the top when a chip covers the cell
+        atlas.drawFace(g, faceOf[cell], x, y, chipOwner != null);
+        if (chipOwner != null) {
+            atlas.drawChip(g, sequence, x, y);
+        }
+    }
+
+    private static Color blend(Color a, Color b, double amountOfA) {
+        if (amountOfA >= 1) return a;
+        if (amountOfA <= 0) return b;
+        return new Color(
+                (int) Math.round(a.getRed() * amountOfA + b.getRed() * (1 - amountOfA)),
+                (int) Math.round(a.getGreen() * amountOfA + b.getGreen() * (1 - amountOfA)),
+                (int) Math.round(a.getBlue() * amountOfA + b.getBlue() * (1 - amountOfA)));
+    }
+
+    private static String suitSymbol(String suit) {
+        switch (suit) {
+            case "Hearts": return "♥";
+            case "Diamonds": return "♦";
+            case "Clubs": return "♣";
+            case "Spades": return "♠";
+            default: return suit.substring(0, 1);
+        }
+    }
+}
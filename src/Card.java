@@ -1,17 +1,109 @@
-public class Card {
+// Cards are flyweights: there is exactly one immutable instance per rank and suit,
+// so cards can be compared with == and indexed by their small integer id.
+public final class Card {
+    // What a card does when played: normal cards match a board cell,
+    // two-eyed Jacks are wild and one-eyed Jacks remove an opponent's chip
+    public enum JackType { NONE, TWO_EYED, ONE_EYED }
+
+    public static final String[] SUITS = {"Hearts", "Diamonds", "Clubs", "Spades"};
+    public static final String[] RANKS = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
+
+    // Number of distinct cards; ids run from 0 to COUNT - 1
+    public static final int COUNT = SUITS.length * RANKS.length;
+
+    private static final Card[] CARDS = new Card[COUNT];
+
+    static {
+        for (int s = 0; s < SUITS.length; s++) {
+            for (int r = 0; r < RANKS.length; r++) {
+                int id = s * RANKS.length + r;
+                CARDS[id] = new Card(id, RANKS[r], SUITS[s]);
+            }
+        }
+    }
+
+    private final int id;
     private final String rank; // 2-10, J, Q, K, A
     private final String suit; // Hearts, Diamonds, Clubs, Spades
+    private final String code; // Board code, e.g. "2H"
+    private final JackType jackType;
+    private final Card moveClass;
 
-    public Card(String rank, String suit) {
+    private Card(int id, String rank, String suit) {
+        this.id = id;
         this.rank = rank;
         this.suit = suit;
+        this.code = rank + suit.charAt(0);
+
+        if (!rank.equals("J")) {
+            this.jackType = JackType.NONE;
+        } else if (suit.equals("Hearts") || suit.equals("Diamonds")) {
+            this.jackType = JackType.TWO_EYED;
+        } else {
+            this.jackType = JackType.ONE_EYED;
+        }
+
+        // Both Jacks of a kind share the lower id's card as their move class; cards
+        // are made in id order, so the lower one is already in CARDS
+        Card first = this;
+        for (int i = 0; i < id && jackType != JackType.NONE; i++) {
+            if (CARDS[i].jackType == jackType) {
+                first = CARDS[i];
+                break;
+            }
+        }
+        this.moveClass = first;
+    }
+
+    // Canonical card for a rank and suit name, e.g. of("10", "Spades")
+    public static Card of(String rank, String suit) {
+        for (int s = 0; s < SUITS.length; s++) {
+            if (!SUITS[s].equals(suit)) continue;
+            for (int r = 0; r < RANKS.length; r++) {
+                if (RANKS[r].equals(rank)) {
+                    return CARDS[s * RANKS.length + r];
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown card: " + rank + " of " + suit);
     }
 
+    // Canonical card for a board code, e.g. fromCode("10S")
+    public static Card fromCode(String code) {
+        for (Card card : CARDS) {
+            if (card.code.equals(code)) {
+                return card;
+            }
+        }
+        throw new IllegalArgumentException("Unknown card code: " + code);
+    }
+
+    public static Card byId(int id) {
+        return CARDS[id];
+    }
+
+    public int getId() { return id; }
     public String getRank() { return rank; }
     public String getSuit() { return suit; }
+    public String getCode() { return code; }
+    public JackType getJackType() { return jackType; }
+
+    // Representative of the cards that make exactly the same moves as this one:
+    // the card itself, or the first Jack of its kind
+    public Card getMoveClass() {
+        return moveClass;
+    }
 
     public boolean isJack() {
-        return rank.equals("J");
+        return jackType != JackType.NONE;
+    }
+
+    public boolean isTwoEyedJack() {
+        return jackType == JackType.TWO_EYED;
+    }
+
+    public boolean isOneEyedJack() {
+        return jackType == JackType.ONE_EYED;
     }
 
     @Override
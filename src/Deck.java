@@ -1,73 +1,51 @@
-import java.util.*;
+import java.util.Random;
 
 public class Deck {
-    private final List<Card> cards = new ArrayList<>();
+    // Sequence is played with two standard decks
+    public static final int DECKS = 2;
+    public static final int SIZE = DECKS * Card.COUNT;
+
+    // Card ids in draw order; the Card instances themselves are shared flyweights
+    private final int[] cards = new int[SIZE];
+    private final Random random;
     private int currentIndex = 0;
 
     public Deck() {
+        this(new Random());
+    }
+
+    public Deck(Random random) {
+        this.random = random;
         initializeDeck();
         shuffle();
     }
 
-
     private void initializeDeck() {
-        String[] suits = {"Hearts", "Diamonds", "Clubs", "Spades"};
-        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
-
-        // Very explicit 2-deck creation
-        System.out.println("Creating deck...");
-        
-        // First deck
-        for (String suit : suits) {
-            for (String rank : ranks) {
-                cards.add(new Card(rank, suit));
-                if (rank.equals("J") && suit.equals("Diamonds")) {
-                    System.out.println("Added first Jack of Diamonds");
-                }
-            }
-        }
-        
-        // Second deck
-        for (String suit : suits) {
-            for (String rank : ranks) {
-                cards.add(new Card(rank, suit));
-                if (rank.equals("J") && suit.equals("Diamonds")) {
-                    System.out.println("Added second Jack of Diamonds");
-                }
+        for (int d = 0; d < DECKS; d++) {
+            for (int id = 0; id < Card.COUNT; id++) {
+                cards[d * Card.COUNT + id] = id;
             }
         }
-        
-        System.out.println("Total cards created: " + cards.size());
     }
-    /*private void initializeDeck() {
-        String[] suits = {"Hearts", "Diamonds", "Clubs", "Spades"};
-        String[] ranks = {"2", "3", "4", "5", "6", "7", "8", "9", "10", "J", "Q", "K", "A"};
-
-        // Sequence boards often use 2 decks — we can do that here
-        for (int d = 0; d < 2; d++) {
-            for (String suit : suits) {
-                for (String rank : ranks) {
-                    cards.add(new Card(rank, suit));
-                }
-            }
-        }
-    }*/
 
     public void shuffle() {
-        Collections.shuffle(cards);
+        for (int i = cards.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = cards[i];
+            cards[i] = cards[j];
+            cards[j] = swap;
+        }
         currentIndex = 0;
     }
 
     public Card drawCard() {
-        if (currentIndex < cards.size()) {
-            return cards.get(currentIndex++);
+        if (currentIndex < cards.length) {
+            return Card.byId(cards[currentIndex++]);
         }
         return null; // deck empty
     }
 
     public boolean isEmpty() {
-        return currentIndex >= cards.size();
+        return currentIndex >= cards.length;
     }
-
-
 }
@@ -0,0 +1,152 @@
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.List;
+
+// One clock for everything the GUI does later or over time: delayed actions, the
+// turn countdown and short animations. Everything runs on the event dispatch thread
+// from a single Swing timer, so timed work never overlaps and every animation steps
+// in the same tick, where Swing folds their repaints into one paint.
+//
+// The clock only wakes when something is due. While an animation runs it ticks at
+// FRAMES_PER_SECOND at most; with only delayed actions pending it sleeps until the
+// next one; with nothing scheduled it stops. All methods must be called on the event
+// dispatch thread.
+public final class FrameScheduler {
+    public static final int FRAMES_PER_SECOND = 30;
+    private static final long FRAME_NANOS = 1_000_000_000L / FRAMES_PER_SECOND;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    // Called once per frame with how far the animation has got, from 0 to 1.
+    // The last call always has progress 1.
+    public interface Animation {
+        void frame(double progress);
+    }
+
+    // Something scheduled; cancel it to stop it running (again)
+    public final class Task {
+        private final Runnable action;
+        private final Animation animation;
+        private final long start;
+        private final long period;     // nanos between runs of a repeating action, else 0
+        private final long duration;   // nanos an animation lasts
+        private long due;
+        private boolean cancelled;
+
+        private Task(Runnable action, Animation animation, long start, long period, long duration, long due) {
+            this.action = action;
+            this.animation = animation;
+            this.start = start;
+            this.period = period;
+            this.duration = duration;
+            this.due = due;
+        }
+
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                tasks.remove(this);
+                reschedule();
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    private final List<Task> tasks = new ArrayList<>();
+    // Buffer for the tasks a tick runs. A tick takes it and gives it back when done, so
+    // a tick nested inside a modal dialog opened by an action gets a list of its own.
+    private List<Task> spare = new ArrayList<>();
+    private final Timer clock;
+
+    public FrameScheduler() {
+        clock = new Timer(0, e -> tick());
+        clock.setRepeats(false);
+    }
+
+    // Run the action once, after the delay
+    public Task after(long delayMillis, Runnable action) {
+        long now = System.nanoTime();
+        return add(new Task(action, null, now, 0, 0, now + delayMillis * NANOS_PER_MILLI));
+    }
+
+    // Run the action every period, first one period from now, until cancelled
+    public Task every(long periodMillis, Runnable action) {
+        long now = System.nanoTime();
+        long period = periodMillis * NANOS_PER_MILLI;
+        return add(new Task(action, null, now, period, 0, now + period));
+    }
+
+    // Step the animation every frame for the given time, starting with the next frame
+    public Task animate(long durationMillis, Animation animation) {
+        long now = System.nanoTime();
+        return add(new Task(null, animation, now, 0, durationMillis * NANOS_PER_MILLI, now));
+    }
+
+    // Drop everything scheduled, e.g. when the window closes
+    public void cancelAll() {
+        for (Task task : tasks) {
+            task.cancelled = true;
+        }
+        tasks.clear();
+        clock.stop();
+    }
+
+    private Task add(Task task) {
+        tasks.add(task);
+        reschedule();
+        return task;
+    }
+
+    // Take what is due off the schedule and set the clock for the next wake-up before
+    // running anything, so an action that opens a modal dialog doesn't stall the clock
+    private void tick() {
+        long now = System.nanoTime();
+        List<Task> due = spare != null ? spare : new ArrayList<>();
+        spare = null;
+        for (Task task : tasks) {
+            if (task.animation != null || task.due <= now) {
+                due.add(task);
+            }
+        }
+        for (Task task : due) {
+            if (task.animation != null) {
+                if (now - task.start >= task.duration) tasks.remove(task);
+            } else if (task.period > 0) {
+                // Skip runs missed while the clock was held up rather than firing them all
+                do task.due += task.period; while (task.due <= now);
+            } else {
+                tasks.remove(task);
+            }
+        }
+        reschedule();
+
+        for (Task task : due) {
+            if (task.cancelled) continue;   // by an action run earlier in this tick
+            if (task.animation != null) {
+                task.animation.frame(task.duration == 0 ? 1 : Math.min(1, (double) (now - task.start) / task.duration));
+            } else {
+                task.action.run();
+            }
+        }
+        due.clear();
+        spare = due;
+    }
+
+    // Wake at the next frame while animating, else when the next action is due
+    private void reschedule() {
+        if (tasks.isEmpty()) {
+            clock.stop();
+            return;
+        }
+        long now = System.nanoTime();
+        long next = Long.MAX_VALUE;
+        for (Task task : tasks) {
+            next = Math.min(next, task.animation != null ? now + FRAME_NANOS : task.due);
+        }
+        int delay = (int) Math.max(0, (next - now + NANOS_PER_MILLI - 1) / NANOS_PER_MILLI);
+        clock.setInitialDelay(delay);
+        clock.restart();
+    }
+}
@@ -1,45 +1,42 @@
 import java.util.Scanner;
 import java.util.List;
 
+// Console front end: the game itself runs in GameEngine, this class only talks to
+// the players through System.in and System.out
 public class GameController {
+    private GameEngine engine;
     private Board board;
-    private Deck deck;
-    private Player[] players;
-    private int currentPlayerIndex;
     private Scanner scanner;
 
     public GameController() {
-        board = new Board();
-        deck = new Deck();
+        // Deals the initial hands (7 cards each)
+        engine = new GameEngine(new Deck(), new Player(1, "Alice"), new Player(2, "Bob"));
+        board = engine.getBoard();
         scanner = new Scanner(System.in);
 
-        // Initialize players
-        players = new Player[2];
-        players[0] = new Player(1, "Alice");
-        players[1] = new Player(2, "Bob");
-
-        // Deal initial hands (7 cards each)
-        for (Player p : players) {
-            for (int i = 0; i < 7; i++) {
-                Card card = deck.drawCard();
-                if (card != null) {
-                    p.addCard(card);
-                }
+        engine.addListener(new GameEngine.Listener() {
+            @Override
+            public void cardPlayed(Player player, Card card, int row, int col) {
+                System.out.println("Played " + card + " at (" + row + "," + col + ")");
             }
-        }
 
-        currentPlayerIndex = 0;
+            @Override
+            public void gameWon(Player winner) {
+                System.out.println("\n" + "=".repeat(50));
+                System.out.println(winner.getName() + " WINS!");
+                System.out.println("Final sequences: " + board.countSequences(winner.getId()));
+                board.printBoard();
+            }
+        });
     }
 
     public void startGame() {
-        boolean gameOver = false;
-
         System.out.println("Welcome to Sequence!");
         System.out.println("Goal: Get 2 sequences of 5 chips in a row to win!");
         System.out.println("Jacks: Hearts/Diamonds = Wild, Spades/Clubs = Remove opponent chip");
         
-        while (!gameOver && !deck.isEmpty()) {
-            Player currentPlayer = players[currentPlayerIndex];
+        while (!engine.isOver() && !engine.isDeckEmpty()) {
+            Player currentPlayer = engine.getCurrentPlayer();
             
             System.out.println("\n" + "=".repeat(50));
             System.out.println("Current Board:");
@@ -54,7 +51,7 @@ public class GameController {
             // Get player's card choice
             int cardIndex = getCardChoice(currentPlayer);
             if (cardIndex == -1) {
-                nextTurn();
+                engine.skipTurn();
                 continue;
             }
 
@@ -79,35 +76,15 @@ public class GameController {
                 continue;
             }
 
-            // Try to play the card
-            boolean success = board.playCard(currentPlayer, chosenCard, targetPosition[0], targetPosition[1]);
+            // Try to play the card; the engine draws a new one, checks for a win
+            // and passes the turn
+            boolean success = engine.apply(new AIMove(chosenCard, targetPosition[0], targetPosition[1]));
             if (!success) {
                 System.out.println("Invalid move! Try again.");
-                continue;
-            }
-
-            System.out.println("Played " + chosenCard + " at (" + targetPosition[0] + "," + targetPosition[1] + ")");
-
-            // Remove the card from hand and draw a new one
-            currentPlayer.removeCard(chosenCard);
-            Card newCard = deck.drawCard();
-            if (newCard != null) {
-                currentPlayer.addCard(newCard);
-            }
-
-            // Check for win
-            if (board.hasPlayerWon(currentPlayer.getId())) {
-                System.out.println("\n" + "=".repeat(50));
-                System.out.println(currentPlayer.getName() + " WINS!");
-                System.out.println("Final sequences: " + board.countSequences(currentPlayer.getId()));
-                board.printBoard();
-                gameOver = true;
-            } else {
-                nextTurn();
             }
         }
 
-        if (!gameOver) {
+        if (engine.winner() == null) {
             System.out.println("Game over - no more cards in deck!");
         }
         
@@ -138,7 +115,7 @@ public class GameController {
                 
                 if (choice >= 0 && choice < player.getHand().size()) {
                     Card chosenCard = player.getHand().get(choice);
-                    if (board.getValidMoves(chosenCard, player.getId()).isEmpty()) {
+                    if (!board.hasValidMove(chosenCard, player.getId())) {
                         System.out.println("That card has no valid moves! Choose another.");
                         continue;
                     }
@@ -169,10 +146,6 @@ public class GameController {
         }
     }
 
-    private void nextTurn() {
-        currentPlayerIndex = (currentPlayerIndex + 1) % players.length;
-    }
-
     public static void main(String[] args) {
         GameController game = new GameController();
         game.startGame();
@@ -0,0 +1,179 @@
+import java.util.ArrayList;
+import java.util.List;
+
+// The rules and turn flow of one game, with no user interface: dealing, playing a
+// card, drawing, discarding dead cards, skipped turns and the win check. Front ends
+// ask for the legal moves, apply the one the player chose and listen for events.
+// Moves use AIMove for humans and AI alike; a discard has row and col -1.
+public class GameEngine {
+    public static final int HAND_SIZE = 7;
+
+    // Callbacks for everything that happens in the game, in the order it happens.
+    // They run on the thread that called apply or skipTurn.
+    public interface Listener {
+        default void cardPlayed(Player player, Card card, int row, int col) {}
+        default void cardDiscarded(Player player, Card card) {}
+        default void cardDrawn(Player player, Card card) {}
+        default void turnSkipped(Player player) {}
+        default void turnStarted(Player player) {}
+        default void gameWon(Player winner) {}
+    }
+
+    private final Board board = new Board();
+    private final Deck deck;
+    private final Player[] players;
+    private final List<Listener> listeners = new ArrayList<>();
+    private final int[] spentCards = new int[Card.COUNT];   // copies played or discarded, by card id
+    private int currentPlayerIndex;
+    private Player winner;
+
+    // Start a game between the players, in turn order, dealing from the deck
+    public GameEngine(Deck deck, Player... players) {
+        if (players.length < 2 || players.length > Board.MAX_PLAYERS) {
+            throw new IllegalArgumentException("Sequence needs 2 to " + Board.MAX_PLAYERS + " players");
+        }
+        this.deck = deck;
+        this.players = players.clone();
+
+        for (Player p : this.players) {
+            for (int i = 0; i < HAND_SIZE; i++) {
+                Card card = deck.drawCard();
+                if (card != null) {
+                    p.addCard(card);
+                }
+            }
+        }
+        currentPlayerIndex = 0;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public Board getBoard() { return board; }
+    public Player[] getPlayers() { return players.clone(); }
+    public int getCurrentPlayerIndex() { return currentPlayerIndex; }
+    public Player getCurrentPlayer() { return players[currentPlayerIndex]; }
+    public boolean isDeckEmpty() { return deck.isEmpty(); }
+
+    // How many copies of each card id have been played or discarded so far. Every
+    // player has seen these, so an AI may count them out of the cards it can't see.
+    public int[] getSpentCards() {
+        return spentCards.clone();
+    }
+
+    // The player who moves after the current one
+    public Player getNextPlayer() {
+        return players[(currentPlayerIndex + 1) % players.length];
+    }
+
+    // The game ends when someone wins, or when the player to move has no cards left
+    public boolean isOver() {
+        return winner != null || getCurrentPlayer().getHand().isEmpty();
+    }
+
+    // The winner, or null while nobody has won
+    public Player winner() {
+        return winner;
+    }
+
+    // Every move the current player can make: each placement or removal of each
+    // distinct card in hand, then a discard for each card with no placement
+    public List<AIMove> legalMoves() {
+        List<AIMove> moves = new ArrayList<>();
+        if (isOver()) return moves;
+
+        Player player = getCurrentPlayer();
+        MoveList generated = new MoveList();
+        long seenCards = 0; // Both copies of a card give the same moves
+        for (Card card : player.getHand()) {
+            long cardBit = 1L << card.getId();
+            if ((seenCards & cardBit) != 0) continue;
+            seenCards |= cardBit;
+
+            int added = board.addValidMoves(card, player.getId(), generated);
+            if (added == 0 || board.isDeadCard(card, player.getId())) {
+                generated.add(MoveList.DISCARD, card, 0);
+            }
+        }
+        for (int i = 0; i < generated.size(); i++) {
+            moves.add(MoveList.toAIMove(generated.get(i)));
+        }
+        return moves;
+    }
+
+    // Whether the current player may make this move now
+    public boolean isLegal(AIMove move) {
+        if (isOver()) return false;
+
+        Player player = getCurrentPlayer();
+        Card card = move.getCard();
+        if (!player.hasCard(card.getId())) return false;
+
+        if (move.isDiscard()) {
+            return isDead(card, player);
+        }
+        return board.isValidMove(card, player.getId(), move.getRow(), move.getCol());
+    }
+
+    // A card the player can discard instead of playing
+    public boolean isDead(Card card, Player player) {
+        return board.isDeadCard(card, player.getId()) || !board.hasValidMove(card, player.getId());
+    }
+
+    // Make the current player's move: play or discard the card, draw a replacement,
+    // check for a win and pass the turn. Returns false, changing nothing, if the move
+    // isn't legal.
+    public boolean apply(AIMove move) {
+        if (!isLegal(move)) return false;
+
+        Player player = getCurrentPlayer();
+        Card card = move.getCard();
+        spentCards[card.getId()]++;
+        if (move.isDiscard()) {
+            player.removeCard(card);
+            for (Listener listener : listeners) listener.cardDiscarded(player, card);
+        } else {
+            board.playCard(player, card, move.getRow(), move.getCol());
+            player.removeCard(card);
+            for (Listener listener : listeners) listener.cardPlayed(player, card, move.getRow(), move.getCol());
+        }
+        draw(player);
+
+        if (board.hasPlayerWon(player.getId())) {
+            winner = player;
+            for (Listener listener : listeners) listener.gameWon(player);
+        } else {
+            nextTurn();
+        }
+        return true;
+    }
+
+    // The current player runs out of time: the turn passes without a move
+    public void skipTurn() {
+        if (isOver()) return;
+
+        Player player = getCurrentPlayer();
+        for (Listener listener : listeners) listener.turnSkipped(player);
+        nextTurn();
+    }
+
+    private void draw(Player player) {
+        Card card = deck.drawCard();
+        if (card != null) {
+            player.addCard(card);
+            for (Listener listener : listeners) listener.cardDrawn(player, card);
+        }
+    }
+
+    private void nextTurn() {
+        currentPlayerIndex = (currentPlayerIndex + 1) % players.length;
+        if (!isOver()) {
+            for (Listener listener : listeners) listener.turnStarted(getCurrentPlayer());
+        }
+    }
+}
@@ -0,0 +1,443 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Information-set Monte Carlo Tree Search behind the Birbal (EXPERT) AI.
+//
+// The AI cannot see the opponent's hand or the order of the deck, so every playout
+// starts by dealing a "determinization": the cards the AI can't account for are
+// shuffled into an opponent hand of the right size and a draw pile. The playout then
+// walks a single tree of moves (one tree per information set, not per deal), choosing
+// among the moves that are legal in this deal with UCB1 weighted by how often each
+// move was available, adds one new node and finishes the game with a quick rollout.
+//
+// Search is root-parallel: every worker of a ForkJoinPool sized to the machine grows
+// its own tree on its own copy of the board, and the root visit counts are summed at
+// the end. Workers stop when the SearchLimits run out (their node budget counts
+// playouts) or when the thread that called search is interrupted.
+//
+// While the opponent is on move the AI can ponder: the workers grow trees rooted at
+// the opponent's turn. When the next search starts from the position one of those
+// opponent moves leads to, each worker carries on from that move's subtree.
+public class MonteCarloSearch {
+    // Exploration constant for rewards between 0 (loss) and 1 (win)
+    private static final double EXPLORATION = 0.7;
+    // Rollouts that reach this many moves without a winner are scored on sequences
+    private static final int ROLLOUT_MOVES = 80;
+    // Move code of a turn spent discarding a dead card
+    private static final int PASS = -1;
+    // No pondered move leads to the position being searched
+    private static final int NO_MATCH = -2;
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final SplittableRandom seeds;
+    private long playouts;
+
+    // Trees grown by the last ponder, the position they start from and the AI's hand then
+    private Node[] ponderRoots;
+    private Board ponderBoard;
+    private long ponderHand;
+
+    public MonteCarloSearch(long seed) {
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    // Pick the most visited of the AI's candidate moves once the limits run out.
+    // spentCards counts the copies of each card id played or discarded so far, or is
+    // null when only the board is known.
+    public AIMove search(Board board, Player ai, Player opponent, int[] spentCards, List<AIMove> candidates,
+                         SearchLimits limits) {
+        if (candidates.isEmpty()) return null;
+
+        Node[] roots = reusePonderTrees(board, ai, opponent);
+        grow(roots, board, ai, opponent, spentCards, limits);
+
+        int[] visits = new int[Card.COUNT * Board.CELLS];
+        for (Node root : roots) {
+            for (Node child : root.children) {
+                if (child.move != PASS) visits[child.move] += child.visits;
+            }
+        }
+
+        // Most visited move; ties go to the earlier candidate
+        AIMove best = candidates.get(0);
+        int bestVisits = -1;
+        for (AIMove move : candidates) {
+            int count = visits[moveCode(move.getCard(), move.getRow() * Board.SIZE + move.getCol())];
+            if (count > bestVisits) {
+                bestVisits = count;
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    // Search the opponent's turn until the limits run out or the calling thread is
+    // interrupted, keeping the trees for the next search
+    public void ponder(Board board, Player ai, Player opponent, int[] spentCards, SearchLimits limits) {
+        ponderRoots = null;
+        Node[] roots = new Node[POOL.getParallelism()];
+        for (int w = 0; w < roots.length; w++) {
+            roots[w] = new Node(PASS, ai.getId());
+        }
+        grow(roots, board, ai, opponent, spentCards, limits);
+
+        ponderRoots = roots;
+        ponderBoard = board.copy();
+        ponderHand = Board.handKey(ai);
+    }
+
+    // Playouts in the trees after the last search or ponder, including reused ones
+    public long getPlayoutCount() {
+        return playouts;
+    }
+
+    // Roots for a search: the subtrees of the pondered opponent move that led to this
+    // board, or new trees when nothing matches
+    private Node[] reusePonderTrees(Board board, Player ai, Player opponent) {
+        Node[] pondered = ponderRoots;
+        ponderRoots = null;
+
+        Node[] roots = new Node[POOL.getParallelism()];
+        int code = pondered != null && ponderHand == Board.handKey(ai)
+                ? findPonderedMove(pondered, board, opponent.getId())
+                : NO_MATCH;
+        for (int w = 0; w < roots.length; w++) {
+            Node subtree = code != NO_MATCH && w < pondered.length ? pondered[w].child(code) : null;
+            roots[w] = subtree != null ? subtree : new Node(PASS, opponent.getId());
+        }
+        return roots;
+    }
+
+    // Code of the pondered opponent move that turns ponderBoard into board
+    private int findPonderedMove(Node[] pondered, Board board, int opponentId) {
+        if (ponderBoard.hash() == board.hash()) return PASS; // the opponent discarded
+
+        for (Node root : pondered) {
+            for (Node child : root.children) {
+                if (child.move == PASS) continue;
+                Card card = Card.byId(child.move / Board.CELLS);
+                int cell = child.move % Board.CELLS;
+                if (!ponderBoard.makeMove(card, cell / Board.SIZE, cell % Board.SIZE, opponentId)) continue;
+                boolean matches = ponderBoard.hash() == board.hash();
+                ponderBoard.unmakeMove();
+                if (matches) return child.move;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    // Run one worker per root until the limits run out
+    private void grow(Node[] roots, Board board, Player ai, Player opponent, int[] spentCards, SearchLimits limits) {
+        long deadline = limits.deadlineFrom(System.nanoTime());
+        long maxPlayouts = limits.getNodes();
+        int workers = roots.length;
+        int[] pool = unseenCards(board, ai, spentCards);
+
+        AtomicBoolean stop = new AtomicBoolean();
+        List<ForkJoinTask<Node>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long budget = maxPlayouts / workers + (w < maxPlayouts % workers ? 1 : 0);
+            Worker worker = new Worker(board.copy(), ai, opponent, pool, seeds.split(), roots[w],
+                    deadline, budget, stop);
+            tasks.add(POOL.submit(worker::run));
+        }
+
+        playouts = 0;
+        for (ForkJoinTask<Node> task : tasks) {
+            playouts += join(task, stop).visits;
+        }
+    }
+
+    // Wait for a worker's tree. If the calling thread is interrupted, every worker
+    // is told to stop and the search ends with what they have found so far.
+    private static <T> T join(ForkJoinTask<T> task, AtomicBoolean stop) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            stop.set(true);
+            Thread.currentThread().interrupt();
+            return task.join();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search failed", e.getCause());
+        }
+    }
+
+    // Card ids the AI can't account for: every copy not in its hand and not played or
+    // discarded. Without spentCards, normal cards whose board cells are taken count as
+    // played, and Jacks and discards can't be told apart from unseen cards.
+    private static int[] unseenCards(Board board, Player ai, int[] spentCards) {
+        int[] cards = new int[Deck.SIZE];
+        int count = 0;
+        for (int id = 0; id < Card.COUNT; id++) {
+            int spent = spentCards != null ? spentCards[id] : board.countChipsOnCard(Card.byId(id));
+            int copies = Deck.DECKS - ai.countOf(id) - spent;
+            for (int copy = 0; copy < copies; copy++) {
+                cards[count++] = id;
+            }
+        }
+        return Arrays.copyOf(cards, count);
+    }
+
+    // Tree code of a move: its card's move class and target cell
+    private static int moveCode(Card card, int cell) {
+        return card.getMoveClass().getId() * Board.CELLS + cell;
+    }
+
+    // A move in the tree, with statistics from the point of view of the player who made it
+    private static final class Node {
+        final int move;
+        final int player;
+        final List<Node> children = new ArrayList<>();
+        int visits;
+        int availability;
+        double reward;
+
+        Node(int move, int player) {
+            this.move = move;
+            this.player = player;
+        }
+
+        Node child(int code) {
+            for (Node child : children) {
+                if (child.move == code) return child;
+            }
+            return null;
+        }
+
+        double ucb(double exploration) {
+            return reward / visits + exploration * Math.sqrt(Math.log(availability) / visits);
+        }
+    }
+
+    // One thread's tree, board and deal
+    private static final class Worker {
+        private final Board board;
+        private final int aiId;
+        private final int opponentId;
+        private final int[] aiHand;
+        private final int opponentHandSize;
+        private final int[] pool;
+        private final SplittableRandom random;
+        private final Node root;
+        private final long deadline;
+        private final long budget;
+        private final AtomicBoolean stop;
+
+        // Current deal: hands indexed by player id; the shuffled pool past drawn is the pile
+        private final int[][] hands = new int[Board.MAX_PLAYERS + 1][];
+        private final int[] handSizes = new int[Board.MAX_PLAYERS + 1];
+        private int drawn;
+        private int madeMoves;
+
+        // Buffers reused by every playout: the moves generated for the player to move,
+        // their tree codes, the codes with no child yet, and the path through the tree
+        private final MoveList generated = new MoveList();
+        private int[] codes = new int[64];
+        private int[] untried = new int[64];
+        private final List<Node> path = new ArrayList<>();
+
+        Worker(Board board, Player ai, Player opponent, int[] pool, SplittableRandom random, Node root,
+               long deadline, long budget, AtomicBoolean stop) {
+            this.board = board;
+            this.aiId = ai.getId();
+            this.opponentId = opponent.getId();
+            this.aiHand = ai.getHand().stream().mapToInt(Card::getId).toArray();
+            this.opponentHandSize = Math.min(opponent.getHand().size(), pool.length);
+            this.pool = pool.clone();
+            this.random = random;
+            this.root = root;
+            this.deadline = deadline;
+            this.budget = budget;
+            this.stop = stop;
+
+            int handLimit = Math.max(aiHand.length, opponentHandSize) + 1;
+            hands[aiId] = new int[handLimit];
+            hands[opponentId] = new int[handLimit];
+        }
+
+        // Grow the tree from its root until time or budget runs out
+        Node run() {
+            for (long n = 0; n < budget && System.nanoTime() < deadline && !stop.get(); n++) {
+                playout();
+            }
+            return root;
+        }
+
+        private void playout() {
+            deal();
+            path.clear();
+            path.add(root);
+
+            // Selection and expansion
+            Node node = root;
+            int toMove = other(root.player);
+            int winner = 0;
+            while (true) {
+                int count = legalMoves(toMove);
+                int untriedCount = 0;
+                Node selected = null;
+                double bestUcb = Double.NEGATIVE_INFINITY;
+                for (int i = 0; i < count; i++) {
+                    int code = codes[i];
+                    Node child = node.child(code);
+                    if (child == null) {
+                        untried[untriedCount++] = code;
+                        continue;
+                    }
+                    child.availability++;
+                    double ucb = child.ucb(EXPLORATION);
+                    if (ucb > bestUcb) {
+                        bestUcb = ucb;
+                        selected = child;
+                    }
+                }
+
+                boolean expand = untriedCount > 0;
+                if (expand) {
+                    selected = new Node(untried[random.nextInt(untriedCount)], toMove);
+                    selected.availability = 1;
+                    node.children.add(selected);
+                }
+
+                play(toMove, selected.move);
+                path.add(selected);
+                node = selected;
+                if (board.hasPlayerWon(toMove)) {
+                    winner = toMove;
+                    break;
+                }
+                toMove = other(toMove);
+                if (expand) break;
+            }
+
+            // Simulation
+            if (winner == 0) {
+                winner = rollout(toMove);
+            }
+            double aiReward = winner == aiId ? 1.0 : winner == opponentId ? 0.0 : drawReward();
+
+            // Backpropagation
+            for (Node n : path) {
+                n.visits++;
+                n.reward += n.player == aiId ? aiReward : 1.0 - aiReward;
+            }
+
+            while (madeMoves > 0) {
+                board.unmakeMove();
+                madeMoves--;
+            }
+        }
+
+        // Random play from here, taking any move that fills a line of 5; returns the
+        // winner's id, or 0 if nobody wins within ROLLOUT_MOVES
+        private int rollout(int toMove) {
+            for (int i = 0; i < ROLLOUT_MOVES; i++) {
+                int move = rolloutMove(toMove);
+                play(toMove, move);
+                if (board.hasPlayerWon(toMove)) return toMove;
+                toMove = other(toMove);
+            }
+            return 0;
+        }
+
+        private int rolloutMove(int player) {
+            int count = legalMoves(player);
+            if (count == 1 && codes[0] == PASS) return PASS;
+
+            for (int i = 0; i < count; i++) {
+                int code = codes[i];
+                Card card = Card.byId(code / Board.CELLS);
+                int cell = code % Board.CELLS;
+                if (!card.isOneEyedJack() && board.wouldCompleteLine(cell / Board.SIZE, cell % Board.SIZE, player)) {
+                    return code;
+                }
+            }
+            return codes[random.nextInt(count)];
+        }
+
+        // Unfinished rollouts score by completed sequences
+        private double drawReward() {
+            int diff = board.countSequences(aiId) - board.countSequences(opponentId);
+            return Math.max(0.0, Math.min(1.0, 0.5 + 0.25 * diff));
+        }
+
+        // Shuffle the unseen cards into the opponent's hand and the draw pile
+        private void deal() {
+            for (int i = pool.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = pool[i];
+                pool[i] = pool[j];
+                pool[j] = swap;
+            }
+
+            System.arraycopy(aiHand, 0, hands[aiId], 0, aiHand.length);
+            handSizes[aiId] = aiHand.length;
+            System.arraycopy(pool, 0, hands[opponentId], 0, opponentHandSize);
+            handSizes[opponentId] = opponentHandSize;
+            drawn = opponentHandSize;
+        }
+
+        // Fill codes with the moves the player can make with the hand dealt, one per
+        // move class and cell, and return how many there are; a hand with no move at
+        // all can only discard (PASS)
+        private int legalMoves(int player) {
+            int[] hand = hands[player];
+            long seen = 0;
+            generated.clear();
+            for (int i = 0; i < handSizes[player]; i++) {
+                Card card = Card.byId(hand[i]).getMoveClass();
+                long bit = 1L << card.getId();
+                if ((seen & bit) != 0) continue;
+                seen |= bit;
+
+                board.addValidMoves(card, player, generated);
+            }
+
+            int count = generated.size();
+            if (count == 0) {
+                codes[0] = PASS;
+                return 1;
+            }
+            if (codes.length < count) {
+                codes = new int[count * 2];
+                untried = new int[count * 2];
+            }
+            for (int i = 0; i < count; i++) {
+                int move = generated.get(i);
+                codes[i] = MoveList.cardId(move) * Board.CELLS + MoveList.cell(move);
+            }
+            return count;
+        }
+
+        // Make the move, spend a card of its class (any card for PASS) and draw
+        private void play(int player, int code) {
+            int[] hand = hands[player];
+            int slot = 0;
+            if (code != PASS) {
+                Card card = Card.byId(code / Board.CELLS);
+                int cell = code % Board.CELLS;
+                board.makeMove(card, cell / Board.SIZE, cell % Board.SIZE, player);
+                madeMoves++;
+                while (Card.byId(hand[slot]).getMoveClass() != card) slot++;
+            }
+
+            if (handSizes[player] == 0) return;
+            if (drawn < pool.length) {
+                hand[slot] = pool[drawn++];
+            } else {
+                hand[slot] = hand[--handSizes[player]];
+            }
+        }
+
+        private int other(int player) {
+            return player == aiId ? opponentId : aiId;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+import java.util.Arrays;
+
+// A reusable list of moves packed into ints, so move generation doesn't allocate.
+// Board.addValidMoves appends to it; searches keep one per ply or per thread and
+// clear it before each use. A packed move holds its kind, card id and target cell:
+//
+//   kind << 13 | card id << 7 | cell      (cell = row * Board.SIZE + col)
+//
+// Discards have cell 0. Not thread-safe: each thread fills its own list.
+public final class MoveList {
+    public static final int PLACE = 0;    // put a chip on an empty cell
+    public static final int REMOVE = 1;   // one-eyed Jack takes an opponent's chip off
+    public static final int DISCARD = 2;  // throw away a dead card
+
+    private static final int CELL_BITS = 7;
+    private static final int CARD_BITS = 6;
+    private static final int CELL_MASK = (1 << CELL_BITS) - 1;
+    private static final int CARD_MASK = (1 << CARD_BITS) - 1;
+
+    // One shared AIMove per card and cell, and per discarded card. AIMove never
+    // changes, so code that still works with AIMove objects can share them.
+    private static final AIMove[] PLAYS = new AIMove[Card.COUNT * Board.CELLS];
+    private static final AIMove[] DISCARDS = new AIMove[Card.COUNT];
+
+    static {
+        for (int id = 0; id < Card.COUNT; id++) {
+            Card card = Card.byId(id);
+            for (int cell = 0; cell < Board.CELLS; cell++) {
+                PLAYS[id * Board.CELLS + cell] = new AIMove(card, cell / Board.SIZE, cell % Board.SIZE);
+            }
+            DISCARDS[id] = new AIMove(card, -1, -1);
+        }
+    }
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(64);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[Math.max(1, capacity)];
+    }
+
+    public static int pack(int kind, int cardId, int cell) {
+        return kind << (CARD_BITS + CELL_BITS) | cardId << CELL_BITS | cell;
+    }
+
+    public static int kind(int move) { return move >>> (CARD_BITS + CELL_BITS); }
+    public static int cardId(int move) { return (move >>> CELL_BITS) & CARD_MASK; }
+    public static int cell(int move) { return move & CELL_MASK; }
+    public static int row(int move) { return cell(move) / Board.SIZE; }
+    public static int col(int move) { return cell(move) % Board.SIZE; }
+    public static Card card(int move) { return Card.byId(cardId(move)); }
+
+    // The shared AIMove for a packed move
+    public static AIMove toAIMove(int move) {
+        return kind(move) == DISCARD ? DISCARDS[cardId(move)] : PLAYS[cardId(move) * Board.CELLS + cell(move)];
+    }
+
+    // Add a move, growing the buffer if it is full. A list that is reused stops
+    // growing once it has held the most moves it will ever need.
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = move;
+    }
+
+    public void add(int kind, Card card, int cell) {
+        add(pack(kind, card.getId(), cell));
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Move " + index + " of " + size);
+        }
+        return moves[index];
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) text.append(", ");
+            int move = moves[i];
+            text.append(card(move));
+            if (kind(move) == DISCARD) {
+                text.append(" discard");
+            } else {
+                text.append(kind(move) == REMOVE ? " x" : " @").append(row(move)).append(',').append(col(move));
+            }
+        }
+        return text.append(']').toString();
+    }
+}
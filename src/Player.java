@@ -6,28 +6,59 @@ public class Player {
     private final String name;
     private final List<Card> hand = new ArrayList<>();
 
+    // Copies of each card id in hand, and a bit per card id held at least once
+    private final int[] cardCounts = new int[Card.COUNT];
+    private long handMask;
+
     public Player(int id, String name) {
         this.id = id;
         this.name = name;
     }
 
+    // Independent copy with the same id, name and hand
+    public Player copy() {
+        Player copy = new Player(id, name);
+        for (Card card : hand) {
+            copy.addCard(card);
+        }
+        return copy;
+    }
+
     public int getId() { return id; }
     public String getName() { return name; }
 
     public void addCard(Card card) {
         if (card != null) {
             hand.add(card);
+            cardCounts[card.getId()]++;
+            handMask |= 1L << card.getId();
         }
     }
 
     public void removeCard(Card card) {
-        hand.remove(card);
+        if (hand.remove(card) && --cardCounts[card.getId()] == 0) {
+            handMask &= ~(1L << card.getId());
+        }
     }
 
     public List<Card> getHand() {
         return hand;
     }
 
+    // Number of copies of the card with this id in hand
+    public int countOf(int cardId) {
+        return cardCounts[cardId];
+    }
+
+    public boolean hasCard(int cardId) {
+        return (handMask & (1L << cardId)) != 0;
+    }
+
+    // Bit i is set when the hand holds at least one card with id i
+    public long getHandMask() {
+        return handMask;
+    }
+
     public void showHand() {
         System.out.println(name + "'s hand: " + hand);
     }
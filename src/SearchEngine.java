@@ -0,0 +1,515 @@
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Expectimax search behind the Chanakya (HARD) AI.
+//
+// The AI's own turns are max nodes over the cards it holds. The opponent's hand and
+// the AI's next draw are hidden, so every turn below the root is a chance node: moves
+// are grouped by the card that makes them, each card gets the probability that the
+// mover holds it, and the turn is worth the expected value of the best move the mover
+// can actually make. A move is worth what it gains on the window balance (below) minus
+// what the other side can expect to gain from the position it leaves behind.
+//
+// The window balance is zero-sum: each window of 5 that a player can still fill is
+// worth WINDOW_WORTH of the cells they hold in it to them, and as much against the
+// other side. AIPlayer's evaluation terms can't stand in for it, because they rate a
+// move by how urgent it is: a reply that blocks a threat scores high, so taking them
+// away from each other would count every threat the AI makes against it. They still
+// choose and order the root moves, so a search cut short plays like the static level.
+//
+// Search runs with iterative deepening until its SearchLimits run out, ordering moves by the
+// previous iteration's values at the root and by gain below it. Moves are
+// tried with Board.makeMove/unmakeMove, so the board is left exactly as it was found.
+// Turn values are cached in a TranspositionTable keyed by the board hash, the side to
+// move and the AI's remaining cards, so positions reached again through another move
+// order or the other copy of a card are not searched twice. Pondering searches the
+// opponent's turn into the same table, so the search that follows the opponent's
+// move starts with the positions that move leads to already valued.
+public class SearchEngine {
+    // Static score of a move from the mover's point of view. evaluateAll and
+    // evaluateEach call prepare once for the position, then evaluate for each move.
+    public interface MoveEvaluator {
+        int evaluate(Board board, AIMove move, Player mover, Player opponent);
+
+        // Work out whatever evaluate needs to know about the position once, before a
+        // batch of its moves is scored
+        default void prepare(Board board, Player mover, Player opponent) {
+        }
+
+        // Score a turn's candidate moves into a new array. Large batches are split
+        // across the common fork/join pool, so evaluate must only read the board, which
+        // must not change until this returns. Meant for the one batch a turn starts
+        // with; nodes inside a search use evaluateEach.
+        default int[] evaluateAll(Board board, AIMove[] moves, int count, Player mover, Player opponent) {
+            int[] scores = new int[count];
+            prepare(board, mover, opponent);
+            if (count < PARALLEL_THRESHOLD || ForkJoinPool.getCommonPoolParallelism() < 2) {
+                for (int i = 0; i < count; i++) {
+                    scores[i] = evaluate(board, moves[i], mover, opponent);
+                }
+            } else {
+                IntStream.range(0, count).parallel()
+                        .forEach(i -> scores[i] = evaluate(board, moves[i], mover, opponent));
+            }
+            return scores;
+        }
+
+        // Score the first count moves into the first count entries of scores on the
+        // calling thread. A search node's batch is too small a job to hand to other
+        // threads, and games running side by side would fight over the pool.
+        default void evaluateEach(Board board, AIMove[] moves, int count, Player mover, Player opponent, int[] scores) {
+            prepare(board, mover, opponent);
+            for (int i = 0; i < count; i++) {
+                scores[i] = evaluate(board, moves[i], mover, opponent);
+            }
+        }
+    }
+
+    // Gain on the window balance, read from the board's window counts; evaluate only
+    // reads the board
+    private static final class WindowBalance implements MoveEvaluator {
+        @Override
+        public int evaluate(Board board, AIMove move, Player mover, Player opponent) {
+            // A wild Jack may go on a corner, which already counts for everyone
+            if (board.isCornerAt(move.getRow(), move.getCol())) return 0;
+            int own = mover.getId();
+            int other = opponent.getId();
+            int gain = 0;
+            for (int w : SequenceWindows.THROUGH[move.getRow() * Board.SIZE + move.getCol()]) {
+                int held = board.windowCount(own, w);
+                int theirs = board.windowCount(other, w);
+                if (move.getCard().isOneEyedJack()) {
+                    // Their window loses a cell, and opens to the mover if that was their last chip
+                    if (board.isWindowOpen(other, w)) gain += WINDOW_WORTH[theirs] - WINDOW_WORTH[theirs - 1];
+                    if (theirs - WINDOW_CORNERS[w] == 1) gain += WINDOW_WORTH[held];
+                } else {
+                    // The mover's window gains a cell, and the window is closed to the other side
+                    if (board.isWindowOpen(own, w)) gain += WINDOW_WORTH[held + 1] - WINDOW_WORTH[held];
+                    if (board.isWindowOpen(other, w)) gain += WINDOW_WORTH[theirs];
+                }
+            }
+            return gain;
+        }
+    }
+
+    // Worth of a window a player can still fill, by the cells they hold in it
+    private static final int[] WINDOW_WORTH = {0, 1, 4, 16, 64, 512};
+    // Corners in each window, which count for both players
+    private static final int[] WINDOW_CORNERS = new int[SequenceWindows.COUNT];
+    private static final MoveEvaluator BALANCE = new WindowBalance();
+
+    private static final int WIN_SCORE = 1_000_000;
+    // moveValue of a move the board refused; callers skip it rather than score it
+    private static final int ILLEGAL = Integer.MIN_VALUE;
+    private static final int MAX_DEPTH = 8;
+    // Root moves searched beyond depth 1, best first
+    private static final int ROOT_WIDTH = 24;
+    // Moves searched at each node below the root, best static scores first
+    private static final int NODE_WIDTH = 8;
+    // Chance outcomes with less probability left than this are not expanded
+    private static final double MIN_PROBABILITY = 0.01;
+    // Smallest batch of root moves worth scoring in parallel
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    // Move class of each card id: its own id, or the representative Jack of its kind
+    private static final int[] CARD_CLASS = new int[Card.COUNT];
+
+    // Hash keys for holding n cards of a class; count 0 has key 0
+    private static final long[][] HAND_KEYS = new long[Card.COUNT][2 * Deck.DECKS + 1];
+
+    static {
+        Random keys = new Random(0xC4A_4A7AL);
+        for (long[] counts : HAND_KEYS) {
+            for (int n = 1; n < counts.length; n++) {
+                counts[n] = keys.nextLong();
+            }
+        }
+
+        for (int id = 0; id < Card.COUNT; id++) {
+            CARD_CLASS[id] = Card.byId(id).getMoveClass().getId();
+        }
+
+        Board empty = new Board();
+        for (int w = 0; w < SequenceWindows.COUNT; w++) {
+            for (int cell : SequenceWindows.CELLS[w]) {
+                if (empty.isCornerAt(cell / Board.SIZE, cell % Board.SIZE)) WINDOW_CORNERS[w]++;
+            }
+        }
+    }
+
+    // Thrown to unwind the search when its limits run out or the searching thread is
+    // interrupted; the board is restored on the way out
+    private static final class TimeUp extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TimeUp() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final TimeUp TIME_UP = new TimeUp();
+
+    private final MoveEvaluator evaluator;   // orders the root moves
+    private final TranspositionTable table;
+
+    // State of the search in progress
+    private Board board;
+    private Player ai;
+    private Player opponent;
+    private final int[] aiCards = new int[Card.COUNT];  // AI's cards per class not yet used on this line
+    private final int[] unseen = new int[Card.COUNT];   // copies per card class the AI can't account for
+    private int unseenTotal;
+    private long handKey;                               // HAND_KEYS of aiCards
+    private long deadline;
+    private long maxNodes;
+    private long nodes;
+    private int completedDepth;
+
+    // Buffers for each remaining depth, reused by every node at that depth: the moves,
+    // their order and static scores, and per card class the chance the mover can play
+    // it, whether that is certain, and the best value of its searched moves
+    private final MoveList[] plyMoves = new MoveList[MAX_DEPTH + 1];
+    private final AIMove[][] plyOrder = new AIMove[MAX_DEPTH + 1][];
+    private final int[][] plyScores = new int[MAX_DEPTH + 1][];
+    private final double[][] plyAvailable = new double[MAX_DEPTH + 1][Card.COUNT];
+    private final boolean[][] plyCertain = new boolean[MAX_DEPTH + 1][Card.COUNT];
+    private final int[][] plyClassValue = new int[MAX_DEPTH + 1][Card.COUNT];
+    private final boolean[][] plySearched = new boolean[MAX_DEPTH + 1][Card.COUNT];
+
+    // The table may be shared by the searches of one game, which keeps useful
+    // results from the previous turn
+    public SearchEngine(MoveEvaluator evaluator, TranspositionTable table) {
+        this.evaluator = evaluator;
+        this.table = table;
+        for (int depth = 0; depth <= MAX_DEPTH; depth++) {
+            plyMoves[depth] = new MoveList();
+            plyOrder[depth] = new AIMove[64];
+            plyScores[depth] = new int[64];
+        }
+    }
+
+    // Pick the best of the AI's candidate moves: the choice of the deepest iteration
+    // finished before the limits ran out
+    public AIMove search(Board board, Player ai, Player opponent, List<AIMove> candidates, SearchLimits limits) {
+        if (candidates.isEmpty()) return null;
+        begin(board, ai, opponent, limits);
+
+        // Depth 1: the evaluator's choice
+        int count = candidates.size();
+        AIMove[] moves = candidates.toArray(new AIMove[0]);
+        int[] scores = evaluator.evaluateAll(board, moves, count, ai, opponent);
+        sortByScore(moves, scores, count);
+        completedDepth = 1;
+
+        int width = Math.min(count, ROOT_WIDTH);
+        int[] gains = new int[count];
+        BALANCE.evaluateEach(board, moves, count, ai, opponent, gains);
+        AIMove[] staticOrder = moves.clone();
+        for (int depth = 2; depth <= MAX_DEPTH && count > 1; depth++) {
+            AIMove[] ordered = moves.clone();
+            int[] values = new int[width];
+            try {
+                for (int i = 0; i < width; i++) {
+                    values[i] = moveValue(ordered[i], gainOf(ordered[i], staticOrder, gains), true, depth);
+                }
+            } catch (TimeUp e) {
+                break;
+            }
+
+            sortByScore(ordered, values, width);
+            moves = ordered;
+            completedDepth = depth;
+            if (values[0] >= WIN_SCORE) break; // forced win found
+        }
+
+        return moves[0];
+    }
+
+    // Value the opponent's turn with iterative deepening until the limits run out or
+    // the thread is interrupted. The results stay in the transposition table.
+    public void ponder(Board board, Player ai, Player opponent, SearchLimits limits) {
+        begin(board, ai, opponent, limits);
+        completedDepth = 0;
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            try {
+                turnValue(false, depth);
+            } catch (TimeUp e) {
+                break;
+            }
+            completedDepth = depth;
+        }
+    }
+
+    private void begin(Board board, Player ai, Player opponent, SearchLimits limits) {
+        this.board = board;
+        this.ai = ai;
+        this.opponent = opponent;
+        this.deadline = limits.deadlineFrom(System.nanoTime());
+        this.maxNodes = limits.getNodes();
+        this.nodes = 0;
+        countCards();
+        table.newSearch();
+    }
+
+    // Deepest iteration finished by the last search or ponder
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    // Positions visited by the last search or ponder
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    // Value of a move for the side making it: its gain minus the expected value of
+    // the other side's reply, WIN_SCORE if it wins on the spot, or ILLEGAL if the
+    // board won't take it
+    private int moveValue(AIMove move, int gain, boolean aiMoving, int depth) {
+        if (depth <= 1) return gain;
+
+        Card card = move.getCard();
+        int mover = aiMoving ? ai.getId() : opponent.getId();
+        if (!board.makeMove(card, move.getRow(), move.getCol(), mover)) {
+            return ILLEGAL;
+        }
+        try {
+            if (board.hasPlayerWon(mover)) return WIN_SCORE;
+
+            int cls = CARD_CLASS[card.getId()];
+            boolean fromHand = aiMoving && aiCards[cls] > 0; // otherwise it is played as drawn
+            if (fromHand) useCard(cls);
+            try {
+                double reply = turnValue(!aiMoving, depth - 1);
+                return (int) Math.max(-WIN_SCORE, Math.min(WIN_SCORE, gain - reply));
+            } finally {
+                if (fromHand) returnCard(cls);
+            }
+        } finally {
+            board.unmakeMove();
+        }
+    }
+
+    // Chance node: expected value of the best move the side to move can make here
+    private double turnValue(boolean aiToMove, int depth) {
+        if (++nodes > maxNodes || System.nanoTime() > deadline || Thread.currentThread().isInterrupted()) {
+            throw TIME_UP;
+        }
+
+        Player mover = aiToMove ? ai : opponent;
+        Player other = aiToMove ? opponent : ai;
+
+        long key = board.hash(mover.getId()) ^ handKey;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISSING && TranspositionTable.depth(entry) >= depth) {
+            return TranspositionTable.score(entry);
+        }
+        int hashMove = entry != TranspositionTable.MISSING ? TranspositionTable.move(entry) : TranspositionTable.NO_MOVE;
+
+        // Probability that the mover can play each card class this turn
+        double[] available = plyAvailable[depth];
+        boolean[] certain = plyCertain[depth];
+        Arrays.fill(available, 0);
+        Arrays.fill(certain, false);
+        for (int cls = 0; cls < Card.COUNT; cls++) {
+            if (CARD_CLASS[cls] != cls) continue;
+            if (aiToMove && aiCards[cls] > 0) {
+                certain[cls] = true;
+                available[cls] = 1.0;
+            } else {
+                available[cls] = aiToMove ? drawProbability(cls) : holdProbability(cls, mover.getHand().size());
+            }
+        }
+
+        // Score every playable move by its gain, then search the best few
+        MoveList moves = plyMoves[depth];
+        moves.clear();
+        for (int cls = 0; cls < Card.COUNT; cls++) {
+            if (available[cls] <= 0) continue;
+            board.addValidMoves(Card.byId(cls), mover.getId(), moves);
+        }
+        if (moves.isEmpty()) return 0;
+
+        int count = moves.size();
+        if (plyOrder[depth].length < count) {
+            int capacity = Math.max(count, plyOrder[depth].length * 2);
+            plyOrder[depth] = new AIMove[capacity];
+            plyScores[depth] = new int[capacity];
+        }
+        AIMove[] ordered = plyOrder[depth];
+        int[] orderedScores = plyScores[depth];
+        for (int i = 0; i < count; i++) {
+            ordered[i] = MoveList.toAIMove(moves.get(i));
+        }
+        BALANCE.evaluateEach(board, ordered, count, mover, other, orderedScores);
+        int width = Math.min(count, NODE_WIDTH);
+        selectBest(ordered, orderedScores, count, width);
+        moveToFront(ordered, orderedScores, count, hashMove);
+
+        int[] classValue = plyClassValue[depth];
+        boolean[] searched = plySearched[depth];
+        Arrays.fill(searched, false);
+        int weakest = Integer.MAX_VALUE;
+        int bestValue = Integer.MIN_VALUE;
+        int bestMove = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < width; i++) {
+            int cls = ordered[i].getCard().getId();
+            int value = moveValue(ordered[i], orderedScores[i], aiToMove, depth);
+            if (value == ILLEGAL) continue;
+            if (!searched[cls] || value > classValue[cls]) {
+                classValue[cls] = value;
+                searched[cls] = true;
+            }
+            weakest = Math.min(weakest, value);
+            if (value > bestValue) {
+                bestValue = value;
+                bestMove = moveCode(ordered[i]);
+            }
+        }
+
+        if (bestMove == TranspositionTable.NO_MOVE) return 0;   // nothing the board would take
+
+        // Best classes first: a class counts only if no better one is available
+        double expected = 0;
+        double remaining = 1.0;
+        while (remaining > MIN_PROBABILITY) {
+            int best = -1;
+            for (int cls = 0; cls < Card.COUNT; cls++) {
+                if (searched[cls] && (best < 0 || classValue[cls] > classValue[best])) best = cls;
+            }
+            if (best < 0) break;
+            searched[best] = false;
+
+            double share;
+            if (certain[best]) {
+                share = remaining;
+            } else if (aiToMove) {
+                share = Math.min(available[best], remaining); // the single draw is one card
+            } else {
+                share = remaining * available[best];          // each card held independently
+            }
+            expected += share * classValue[best];
+            remaining -= share;
+        }
+
+        // Whatever is left plays something no better than the weakest searched move
+        double value = expected + remaining * weakest;
+        table.store(key, depth, (int) Math.round(value), bestMove);
+        return value;
+    }
+
+    // The AI plays a card of this class on the current line, or takes it back
+    private void useCard(int cls) {
+        handKey ^= HAND_KEYS[cls][aiCards[cls]] ^ HAND_KEYS[cls][aiCards[cls] - 1];
+        aiCards[cls]--;
+    }
+
+    private void returnCard(int cls) {
+        handKey ^= HAND_KEYS[cls][aiCards[cls]] ^ HAND_KEYS[cls][aiCards[cls] + 1];
+        aiCards[cls]++;
+    }
+
+    // Chance the AI's next draw is a card of this class
+    private double drawProbability(int cls) {
+        return unseenTotal == 0 ? 0 : (double) unseen[cls] / unseenTotal;
+    }
+
+    // Chance a hidden hand of handSize cards holds at least one card of this class
+    private double holdProbability(int cls, int handSize) {
+        int copies = unseen[cls];
+        if (copies == 0) return 0;
+
+        double none = 1.0;
+        for (int i = 0; i < handSize && none > 0; i++) {
+            int left = unseenTotal - i;
+            none = left <= 0 ? 0 : none * Math.max(0, left - copies) / left;
+        }
+        return 1.0 - none;
+    }
+
+    // The AI's own hand is known. Every other copy is unseen, except normal cards whose
+    // board cells are already taken, which are most likely played.
+    private void countCards() {
+        Arrays.fill(aiCards, 0);
+        handKey = 0;
+        for (Card card : ai.getHand()) {
+            returnCard(CARD_CLASS[card.getId()]);
+        }
+
+        Arrays.fill(unseen, 0);
+        unseenTotal = 0;
+        for (int id = 0; id < Card.COUNT; id++) {
+            int played = board.countChipsOnCard(Card.byId(id));
+            int copies = Math.max(0, Deck.DECKS - ai.countOf(id) - played);
+            unseen[CARD_CLASS[id]] += copies;
+            unseenTotal += copies;
+        }
+    }
+
+    // Gain of a root move, from the gains worked out at depth 1
+    private static int gainOf(AIMove move, AIMove[] moves, int[] scores) {
+        for (int i = 0; i < moves.length; i++) {
+            if (moves[i] == move) return scores[i];
+        }
+        return 0;
+    }
+
+    // Table code of a move: its card class and target cell
+    private static int moveCode(AIMove move) {
+        return CARD_CLASS[move.getCard().getId()] * Board.CELLS + move.getRow() * Board.SIZE + move.getCol();
+    }
+
+    // Move the first count moves' entry with this code, if any, to the front
+    private static void moveToFront(AIMove[] moves, int[] scores, int count, int code) {
+        if (code == TranspositionTable.NO_MOVE) return;
+        for (int i = 0; i < count; i++) {
+            if (moveCode(moves[i]) != code) continue;
+            AIMove move = moves[i];
+            int score = scores[i];
+            System.arraycopy(moves, 0, moves, 1, i);
+            System.arraycopy(scores, 0, scores, 1, i);
+            moves[0] = move;
+            scores[0] = score;
+            return;
+        }
+    }
+
+    // Bring the best width of the first count moves to the front, highest first and
+    // ties in order, as sortByScore would; the rest are left in no particular order
+    private static void selectBest(AIMove[] moves, int[] scores, int count, int width) {
+        for (int i = 0; i < width; i++) {
+            int best = i;
+            for (int j = i + 1; j < count; j++) {
+                if (scores[j] > scores[best]) best = j;
+            }
+            AIMove move = moves[best];
+            int score = scores[best];
+            System.arraycopy(moves, i, moves, i + 1, best - i);
+            System.arraycopy(scores, i, scores, i + 1, best - i);
+            moves[i] = move;
+            scores[i] = score;
+        }
+    }
+
+    // Sort the first count moves by score, highest first, keeping ties in order
+    private static void sortByScore(AIMove[] moves, int[] scores, int count) {
+        for (int i = 1; i < count; i++) {
+            AIMove move = moves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+}
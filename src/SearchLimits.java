@@ -0,0 +1,49 @@
+// How long an AI search may run: a wall-clock budget, a work budget, or both.
+// The search stops at whichever runs out first and returns the best move found so far.
+// Work is counted in the search's own unit: positions for SearchEngine, playouts for
+// MonteCarloSearch. Work budgets make results repeatable, which suits batch simulation.
+public final class SearchLimits {
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    // Quick fixed-work searches for simulations that play many games
+    public static final SearchLimits FAST = nodes(1_000);
+
+    private final long millis;
+    private final long nodes;
+
+    private SearchLimits(long millis, long nodes) {
+        if (millis < 0 || nodes < 0) {
+            throw new IllegalArgumentException("Search limits must not be negative: " + millis + " ms, " + nodes + " nodes");
+        }
+        this.millis = millis;
+        this.nodes = nodes;
+    }
+
+    public static SearchLimits millis(long millis) {
+        return new SearchLimits(millis, UNLIMITED);
+    }
+
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(UNLIMITED, nodes);
+    }
+
+    public static SearchLimits of(long millis, long nodes) {
+        return new SearchLimits(millis, nodes);
+    }
+
+    public long getMillis() { return millis; }
+    public long getNodes() { return nodes; }
+
+    // System.nanoTime() value at which a search started now must stop
+    public long deadlineFrom(long startNanos) {
+        if (millis >= UNLIMITED / 1_000_000L) return UNLIMITED;
+        return startNanos + millis * 1_000_000L;
+    }
+
+    @Override
+    public String toString() {
+        String time = millis == UNLIMITED ? "no time limit" : millis + " ms";
+        String work = nodes == UNLIMITED ? "no node limit" : nodes + " nodes";
+        return time + ", " + work;
+    }
+}
@@ -1,32 +1,40 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class SequenceGameGUI extends JFrame {
-    private static final int CELL_SIZE = 80;
-    private static final int BOARD_SIZE = 10;
 
     private static final Color PLAYER1_COLOR = new Color(0xf7b173);                    // Custom orange/peach
     private static final Color PLAYER2_COLOR = new Color(0x90d9f4);                   // Custom light blue
     private static final Color PLAYER1_SEQUENCE_COLOR = new Color(0xfc7d56);  // Custom coral/red-orange
     private static final Color PLAYER2_SEQUENCE_COLOR = new Color(0x1fbbf5);  // Custom bright blue
-    private static final Color CORNER_COLOR = Color.YELLOW;
-    private static final Color EMPTY_COLOR = Color.WHITE;
-    private static final Color SELECTED_COLOR = Color.CYAN;
     
+    // The game itself; board and players are the engine's, kept here for drawing
+    private GameEngine engine;
     private Board board;
-    private Deck deck;
     private Player[] players;
-    private int currentPlayerIndex;
     private boolean isAIGame;
     private AIPlayer aiPlayer;
     private boolean isAIThinking;
     
+    // The AI thinks on its own worker thread against a snapshot of the game, so the
+    // event dispatch thread stays free to repaint and take input meanwhile
+    private final ExecutorService aiExecutor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "AI player");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> aiTask;
+    private Future<?> ponderTask;   // The AI thinking ahead during the human's turn
+    private int aiRequest;   // Bumped on every request and cancel; stale results are dropped
+    private FrameScheduler.Task aiWatchdog;
+    
     // GUI Components
-    private JPanel boardPanel;
-    private JPanel[][] cellPanels;
+    private BoardView boardView;
     private JPanel handPanel;
     private JPanel statusPanel;
     private JLabel statusLabel;
@@ -34,8 +42,11 @@ public class SequenceGameGUI extends JFrame {
     private JButton[] handButtons;
     private Card selectedCard;
     private boolean gameOver;
+    private final MoveList handMoves = new MoveList();   // Reused when marking dead cards
 
-    private Timer turnTimer;
+    // Every delay, countdown and animation in the window runs off this one clock
+    private final FrameScheduler frames = new FrameScheduler();
+    private FrameScheduler.Task turnTimer;
     private int timeLeft;
     private static final int TURN_TIME_SECONDS = 15;
     private JLabel timerLabel;
@@ -77,9 +88,6 @@ public class SequenceGameGUI extends JFrame {
     }
 
     private void initializeGame() {
-        board = new Board();
-        deck = new Deck();
-        
         // Select game mode first
         GameMode gameMode = selectGameMode();
         isAIGame = gameMode.isAI;
@@ -110,17 +118,9 @@ public class SequenceGameGUI extends JFrame {
             players[1] = new Player(2, playerNames[1] + " (Blue)");
         }
 
-        // Deal initial hands
-        for (Player p : players) {
-            for (int i = 0; i < 7; i++) {
-                Card card = deck.drawCard();
-                if (card != null) {
-                    p.addCard(card);
-                }
-            }
-        }
-
-        currentPlayerIndex = 0;
+        // The engine deals the initial hands
+        engine = new GameEngine(new Deck(), players);
+        board = engine.getBoard();
         gameOver = false;
         isAIThinking = false;
     }
@@ -129,10 +129,18 @@ public class SequenceGameGUI extends JFrame {
         setTitle("Sequence Game");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLayout(new BorderLayout());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cancelAIMove();
+                frames.cancelAll();
+                aiExecutor.shutdownNow();
+            }
+        });
 
         // Create board panel
         createBoardPanel();
-        add(boardPanel, BorderLayout.CENTER);
+        add(boardView, BorderLayout.CENTER);
 
         // Create hand panel
         createHandPanel();
@@ -153,51 +161,12 @@ public class SequenceGameGUI extends JFrame {
         setResizable(false);
     }
     private void createBoardPanel() {
-        boardPanel = new JPanel(new GridLayout(BOARD_SIZE, BOARD_SIZE, 1, 1));
-        boardPanel.setBackground(Color.BLACK);
-        boardPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        
-        cellPanels = new JPanel[BOARD_SIZE][BOARD_SIZE];
-        
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                JPanel cellPanel = createCellPanel(row, col);
-                cellPanels[row][col] = cellPanel;
-                boardPanel.add(cellPanel);
+        boardView = new BoardView(board);
+        boardView.setCellListener((row, col) -> {
+            if (!gameOver && selectedCard != null) {
+                handleCellClick(row, col);
             }
-        }
-    }
-
-    private JPanel createCellPanel(int row, int col) {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setPreferredSize(new Dimension(CELL_SIZE, CELL_SIZE));
-        panel.setBorder(BorderFactory.createRaisedBevelBorder());
-        
-        // Add click listener
-        final int finalRow = row;
-        final int finalCol = col;
-      panel.addMouseListener(new MouseAdapter() {
-          @Override
-          public void mouseClicked(MouseEvent e) {
-              if (!gameOver && selectedCard != null) {
-                  handleCellClick(finalRow, finalCol);
-              }
-          }
-          
-          @Override
-          public void mouseEntered(MouseEvent e) {
-              if (!gameOver && selectedCard != null && isValidMove(selectedCard, finalRow, finalCol)) {
-                  panel.setBackground(SELECTED_COLOR);
-              }
-          }
-          
-          @Override
-          public void mouseExited(MouseEvent e) {
-              updateCellDisplay(finalRow, finalCol);
-          }
-      });
-        
-        return panel;
+        });
     }
 
     private void createHandPanel() {
@@ -327,20 +296,19 @@ public class SequenceGameGUI extends JFrame {
         if (gameOver || isAIThinking) return;
         
         // Prevent card selection during AI turn
-        if (isAIGame && currentPlayerIndex == 1) {
+        if (isAIGame && engine.getCurrentPlayerIndex() == 1) {
             return;
         }
         
-        Player currentPlayer = players[currentPlayerIndex];
+        Player currentPlayer = engine.getCurrentPlayer();
         if (cardIndex >= currentPlayer.getHand().size()) return;
         
         Card chosenCard = currentPlayer.getHand().get(cardIndex);
         
         // Check if card is dead
         boolean isDead = board.isDeadCard(chosenCard, currentPlayer.getId());
-        List<int[]> validMoves = board.getValidMoves(chosenCard, currentPlayer.getId());
         
-        if (isDead || validMoves.isEmpty()) {
+        if (isDead || !board.hasValidMove(chosenCard, currentPlayer.getId())) {
             // Handle dead card - discard and end turn
             handleDeadCardDiscard(chosenCard, currentPlayer);
             return;
@@ -380,14 +348,8 @@ public class SequenceGameGUI extends JFrame {
             // Stop current timer
             stopTurnTimer();
             
-            // Remove the dead card from hand
-            currentPlayer.removeCard(deadCard);
-            
-            // Draw a new card if deck has cards
-            Card newCard = deck.drawCard();
-            if (newCard != null) {
-                currentPlayer.addCard(newCard);
-            }
+            // Discard the dead card, draw a new one and end the turn
+            engine.apply(new AIMove(deadCard, -1, -1));
             
             // Clear selection
             selectedCard = null;
@@ -395,15 +357,12 @@ public class SequenceGameGUI extends JFrame {
             // Show message about what happened
             statusLabel.setText(currentPlayer.getName() + " discarded dead card: " + deadCard);
             
-            // End turn - switch to next player
-            currentPlayerIndex = (currentPlayerIndex + 1) % players.length;
-            
             // Update display
             updateDisplay();
             
             // Brief pause to show the message, then start appropriate turn
-            Timer timer = new Timer(1500, e -> {
-                if (isAIGame && currentPlayerIndex == 1) {
+            frames.after(1500, () -> {
+                if (isAIGame && engine.getCurrentPlayerIndex() == 1) {
                     // AI's turn
                     scheduleAIMove();
                 } else {
@@ -411,30 +370,24 @@ public class SequenceGameGUI extends JFrame {
                     startTurnTimer();
                     updateStatusDisplay();
                 }
-                ((Timer)e.getSource()).stop();
             });
-            timer.setRepeats(false);
-            timer.start();
         }
 }
     private void handleCellClick(int row, int col) {
         if (selectedCard == null || gameOver || isAIThinking) return;
         
         // Only allow human interaction on human turns
-        if (isAIGame && currentPlayerIndex == 1) {
+        if (isAIGame && engine.getCurrentPlayerIndex() == 1) {
             return; // AI's turn, ignore human clicks
         }
         
-        Player currentPlayer = players[currentPlayerIndex];
+        Player currentPlayer = engine.getCurrentPlayer();
         
         // Special handling for one-eyed Jacks trying to remove sequence chips
-        boolean isOneEyedJack = selectedCard.isJack() && 
-                (selectedCard.getSuit().equals("Spades") || selectedCard.getSuit().equals("Clubs"));
-        
-        if (isOneEyedJack) {
+        if (selectedCard.isOneEyedJack()) {
             Integer chipOwner = board.getChipAt(row, col);
             if (chipOwner != null && chipOwner != currentPlayer.getId()) {
-                if (isCellPartOfSequence(row, col, chipOwner)) {
+                if (board.isInSequence(row, col, chipOwner)) {
                     JOptionPane.showMessageDialog(this, 
                         "Cannot remove this chip!\nIt's part of a completed sequence.", 
                         "Protected Sequence Chip", 
@@ -450,7 +403,7 @@ public class SequenceGameGUI extends JFrame {
         }
         
         // Play the card
-        boolean success = board.playCard(currentPlayer, selectedCard, row, col);
+        boolean success = engine.apply(new AIMove(selectedCard, row, col));
         if (success) {
             executeSuccessfulMove(currentPlayer, selectedCard);
         }
@@ -460,31 +413,22 @@ public class SequenceGameGUI extends JFrame {
         // Stop the timer for successful move
         stopTurnTimer();
         
-        // Remove card from hand and draw new one
-        currentPlayer.removeCard(playedCard);
-        Card newCard = deck.drawCard();
-        if (newCard != null) {
-            currentPlayer.addCard(newCard);
-        }
-        
+        // The engine has already drawn a new card and passed the turn on
         selectedCard = null;
         
         // Refresh the entire board to update sequence highlighting
         updateBoardDisplay();
         
         // Check for win
-        if (board.hasPlayerWon(currentPlayer.getId())) {
+        if (engine.winner() == currentPlayer) {
             gameOver = true;
             stopTurnTimer();
             JOptionPane.showMessageDialog(this, 
                 currentPlayer.getName() + " WINS!\nSequences: " + board.countSequences(currentPlayer.getId()),
                 "Game Over", JOptionPane.INFORMATION_MESSAGE);
         } else {
-            // Next player's turn
-            currentPlayerIndex = (currentPlayerIndex + 1) % players.length;
-            
             // Start next turn
-            if (isAIGame && currentPlayerIndex == 1) {
+            if (isAIGame && engine.getCurrentPlayerIndex() == 1) {
                 // AI's turn
                 scheduleAIMove();
             } else {
@@ -502,36 +446,100 @@ public class SequenceGameGUI extends JFrame {
         isAIThinking = true;
         statusLabel.setText(players[1].getName() + " is thinking...");
         
-        // Add thinking delay based on AI level
-        int thinkingTime = getAIThinkingTime();
+        // The AI's level decides how much of the turn it spends searching
+        executeAIMove();
+    }
+
+    private void executeAIMove() {
+        if (gameOver || aiExecutor.isShutdown()) return;
+        
+        // Pondering is over once it's the AI's turn; its results carry over into this search
+        stopPondering();
+        
+        // Let the AI choose on copies; the live board and hands are only touched here
+        Board boardSnapshot = board.copy();
+        Player aiSnapshot = players[1].copy();
+        Player humanSnapshot = players[0].copy();
+        int[] spentCards = engine.getSpentCards();
+        int request = ++aiRequest;
+        SearchLimits limits = aiPlayer.limitsForTurn(TURN_TIME_SECONDS * 1000L);
+        
+        aiTask = aiExecutor.submit(() -> {
+            try {
+                AIMove aiMove = aiPlayer.chooseMove(boardSnapshot, aiSnapshot, humanSnapshot, spentCards, limits);
+                SwingUtilities.invokeLater(() -> applyAIMove(request, aiMove));
+            } catch (RuntimeException e) {
+                SwingUtilities.invokeLater(() -> reportAIFailure(request, e));
+            }
+        });
         
-        Timer aiTimer = new Timer(thinkingTime, e -> {
-            executeAIMove();
-            ((Timer)e.getSource()).stop();
+        // An AI gets the same time limit as a human
+        aiWatchdog = frames.after(TURN_TIME_SECONDS * 1000, () -> {
+            cancelAIMove();
+            handleTimeOut();
         });
-        aiTimer.setRepeats(false);
-        aiTimer.start();
     }
-
-    private int getAIThinkingTime() {
-        if (aiPlayer == null) return 1000;
-        
-        switch (aiPlayer.getName()) {
-            case "Suppandi": return 500;          // Quick random moves
-            case "Chacha Chaudhary": return 1500; // Medium thinking
-            case "Chanakya": return 2500;         // Deep thinking
-            default: return 1000;
+    
+    // Let the AI think on the human's turn, on a snapshot of the position they face
+    private void startPondering() {
+        stopPondering();
+        if (aiExecutor.isShutdown()) return;
+        
+        Board boardSnapshot = board.copy();
+        Player aiSnapshot = players[1].copy();
+        Player humanSnapshot = players[0].copy();
+        int[] spentCards = engine.getSpentCards();
+        SearchLimits limits = SearchLimits.millis(TURN_TIME_SECONDS * 1000L);
+        
+        ponderTask = aiExecutor.submit(() -> {
+            try {
+                aiPlayer.ponder(boardSnapshot, aiSnapshot, humanSnapshot, spentCards, limits);
+            } catch (RuntimeException e) {
+                // Pondering is best-effort: the AI's own turn searches afresh, and reports its own failures
+            }
+        });
+    }
+    
+    private void stopPondering() {
+        if (ponderTask != null) {
+            ponderTask.cancel(true);
+            ponderTask = null;
         }
     }
-
-    private void executeAIMove() {
-        if (gameOver) return;
+    
+    // Stop any AI computation in progress and forget its result
+    private void cancelAIMove() {
+        stopPondering();
+        aiRequest++;
+        if (aiTask != null) {
+            aiTask.cancel(true);
+            aiTask = null;
+        }
+        if (aiWatchdog != null) {
+            aiWatchdog.cancel();
+            aiWatchdog = null;
+        }
+        isAIThinking = false;
+    }
+    
+    // Say why the AI isn't moving; the watchdog still skips its turn when time runs out
+    private void reportAIFailure(int request, RuntimeException e) {
+        if (request != aiRequest || gameOver || !isAIThinking) return;
+        aiTask = null;
+        statusLabel.setText(players[1].getName() + " could not choose a move (" + e + ") - turn will be skipped");
+    }
+    
+    // Play the move the AI worker chose, unless it was cancelled in the meantime
+    private void applyAIMove(int request, AIMove aiMove) {
+        if (request != aiRequest || gameOver || !isAIThinking) return;
         
-        Player currentAIPlayer = players[1];
-        Player humanPlayer = players[0];
+        aiTask = null;
+        if (aiWatchdog != null) {
+            aiWatchdog.cancel();
+            aiWatchdog = null;
+        }
         
-        // Get AI's move choice
-        AIMove aiMove = aiPlayer.chooseMove(board, currentAIPlayer, humanPlayer);
+        Player currentAIPlayer = players[1];
         
         if (aiMove.isDiscard()) {
             // AI is discarding a dead card
@@ -553,7 +561,7 @@ public class SequenceGameGUI extends JFrame {
         highlightAIMove(playedCard, row, col);
         
         // Execute the move
-        boolean success = board.playCard(aiPlayerObj, playedCard, row, col);
+        boolean success = engine.apply(aiMove);
         if (success) {
             executeSuccessfulMove(aiPlayerObj, playedCard);
         } else {
@@ -563,60 +571,42 @@ public class SequenceGameGUI extends JFrame {
     }
 
     private void executeAIDiscard(Player aiPlayerObj, Card deadCard) {
-        // Remove the dead card from hand
-        aiPlayerObj.removeCard(deadCard);
-        
-        // Draw a new card if deck has cards
-        Card newCard = deck.drawCard();
-        if (newCard != null) {
-            aiPlayerObj.addCard(newCard);
+        // Discard and draw, ending the turn; a card that isn't dead can't be
+        // discarded, so the turn is skipped instead
+        if (engine.apply(new AIMove(deadCard, -1, -1))) {
+            statusLabel.setText(aiPlayerObj.getName() + " discarded: " + deadCard);
+        } else {
+            engine.skipTurn();
+            statusLabel.setText(aiPlayerObj.getName() + " passed");
         }
         
-        // Show what AI did
-        statusLabel.setText(aiPlayerObj.getName() + " discarded: " + deadCard);
-        
-        // End turn - switch to human
-        currentPlayerIndex = 0;
-        
         // Update display
         updateDisplay();
         
         // Brief pause then start human turn
-        Timer timer = new Timer(1500, e -> {
+        frames.after(1500, () -> {
             startTurnTimer();
             updateStatusDisplay();
-            ((Timer)e.getSource()).stop();
         });
-        timer.setRepeats(false);
-        timer.start();
     }
 
     private void highlightAIMove(Card playedCard, int row, int col) {
         // Briefly highlight the AI's move
         statusLabel.setText(players[1].getName() + " played " + playedCard + " at (" + row + "," + col + ")");
         
-        // You could add visual highlighting of the cell here if desired
-        JPanel cell = cellPanels[row][col];
-        Color originalColor = cell.getBackground();
-        cell.setBackground(Color.YELLOW);
-        
-        Timer highlightTimer = new Timer(800, e -> {
-            cell.setBackground(originalColor);
-            updateCellDisplay(row, col);
-            ((Timer)e.getSource()).stop();
+        // Full strength for the first half, then fade out
+        boardView.setHighlight(row, col);
+        frames.animate(800, progress -> {
+            if (progress >= 1) {
+                boardView.clearHighlight();
+            } else {
+                boardView.setHighlight(row, col, Math.min(1, 2 * (1 - progress)));
+            }
         });
-        highlightTimer.setRepeats(false);
-        highlightTimer.start();
     }
 
     private boolean isValidMove(Card card, int row, int col) {
-        List<int[]> validMoves = board.getValidMoves(card, players[currentPlayerIndex].getId());
-        for (int[] move : validMoves) {
-            if (move[0] == row && move[1] == col) {
-                return true;
-            }
-        }
-        return false;
+        return board.isValidMove(card, engine.getCurrentPlayer().getId(), row, col);
     }
 
     private void updateDisplay() {
@@ -626,7 +616,7 @@ public class SequenceGameGUI extends JFrame {
         
         // Start timer for the first player if game just started
         if (turnTimer == null && !gameOver) {
-            if (isAIGame && currentPlayerIndex == 1) {
+            if (isAIGame && engine.getCurrentPlayerIndex() == 1) {
                 scheduleAIMove();
             } else {
                 startTurnTimer();
@@ -634,137 +624,14 @@ public class SequenceGameGUI extends JFrame {
         }
     }
     
+    // The board view follows chip and sequence changes itself; it only needs to know
+    // which card is selected to outline its targets
     private void updateBoardDisplay() {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
-                updateCellDisplay(row, col);
-            }
-        }
-    }
-
-    private void updateCellDisplay(int row, int col) {
-        JPanel panel = cellPanels[row][col];
-        panel.removeAll();
-        panel.setLayout(new BorderLayout());
-        
-        // Get actual board state
-        String cardName = board.getCardAt(row, col);
-        Integer chipOwner = board.getChipAt(row, col);
-        boolean isCorner = board.isCornerAt(row, col);
-        
-        // Determine background color based on chip ownership and sequence status
-        Color bgColor = EMPTY_COLOR;
-        Color textColor = Color.BLACK;
-        
-        if (chipOwner != null) {
-            // Check if this chip is part of a completed sequence
-            boolean isPartOfSequence = isCellPartOfSequence(row, col, chipOwner);
-            
-            if (isPartOfSequence) {
-                // Use special sequence colors
-                bgColor = (chipOwner == 1) ? PLAYER1_SEQUENCE_COLOR : PLAYER2_SEQUENCE_COLOR;
-                textColor = Color.WHITE; // White text on sequence background
-            } else {
-                // Use regular chip colors
-                bgColor = (chipOwner == 1) ? PLAYER1_COLOR : PLAYER2_COLOR;
-                textColor = Color.WHITE;
-            }
-        } else if (isCorner) {
-            // Corner cell
-            bgColor = CORNER_COLOR;
-            textColor = Color.BLACK;
-        }
-        
-        // Highlight valid moves with green border
-        if (selectedCard != null && isValidMove(selectedCard, row, col)) {
-            panel.setBorder(BorderFactory.createLineBorder(Color.GREEN, 3));
-        } else {
-            panel.setBorder(BorderFactory.createLineBorder(Color.BLACK, 1));
-        }
-        
-        panel.setBackground(bgColor);
-        
-        // Create the display text
-        String displayText;
-        if (isCorner) {
-            displayText = "FREE";
-        } else {
-            displayText = formatCardName(cardName);
-        }
-        
-        // Add the card name label
-        JLabel cardLabel = new JLabel(displayText, SwingConstants.CENTER);
-        cardLabel.setFont(new Font("Arial", Font.BOLD, 18)); // Smaller font to make room for bigger chip
-        
-        // If there's a chip, add chip indicator
-        if (chipOwner != null) {
-            // Check if it's part of a sequence for special styling
-            boolean isPartOfSequence = isCellPartOfSequence(row, col, chipOwner);
-            
-            String chipSymbol = isPartOfSequence ? "★" : "●"; // Star for sequence, circle for regular
-            JLabel chipLabel = new JLabel(chipSymbol, SwingConstants.CENTER);
-            chipLabel.setFont(new Font("Arial", Font.BOLD, isPartOfSequence ? 28 : 32)); // BIGGER CHIPS
-            chipLabel.setForeground(Color.WHITE);
-            
-            // Use a layered approach - card name on top, BIG chip symbol in center
-            JPanel textPanel = new JPanel(new BorderLayout());
-            textPanel.setOpaque(false);
-            textPanel.add(cardLabel, BorderLayout.NORTH);
-            textPanel.add(chipLabel, BorderLayout.CENTER);
-            
-            panel.add(textPanel, BorderLayout.CENTER);
-        } else {
-            // No chip - just show card name
-            cardLabel.setForeground(textColor);
-            panel.add(cardLabel, BorderLayout.CENTER);
-        }
-        
-        panel.revalidate();
-        panel.repaint();
-    }
-
-    private String formatCardName(String cardName) {
-        if (cardName == null || cardName.isEmpty() || cardName.equals("*")) {
-            return "";
-        }
-        
-        // Convert card format like "2H" to "2♥" with proper colors
-        if (cardName.length() >= 2) {
-            String rank = cardName.substring(0, cardName.length() - 1);
-            String suit = cardName.substring(cardName.length() - 1);
-            
-            String suitSymbol;
-            String color;
-            switch (suit) {
-                case "H": 
-                    suitSymbol = "♥"; 
-                    color = "red";
-                    break;
-                case "D": 
-                    suitSymbol = "♦"; 
-                    color = "red";
-                    break;
-                case "C": 
-                    suitSymbol = "♣"; 
-                    color = "black";
-                    break;
-                case "S": 
-                    suitSymbol = "♠"; 
-                    color = "black";
-                    break;
-                default: 
-                    suitSymbol = suit;
-                    color = "black";
-            }
-            
-            return "<html><font color='" + color + "'>" + rank + suitSymbol + "</font></html>";
-        }
-        
-        return cardName;
+        boardView.setSelectedCard(selectedCard, engine.getCurrentPlayer().getId());
     }
 
     private void updateHandDisplay() {
-        Player currentPlayer = players[currentPlayerIndex];
+        Player currentPlayer = engine.getCurrentPlayer();
         
         // Update player info panel
         JPanel playerInfoPanel = (JPanel) handPanel.getComponent(0);
@@ -785,7 +652,7 @@ public class SequenceGameGUI extends JFrame {
         playerInfoPanel.revalidate();
         
         // Show cards based on game type and current player
-        if (isAIGame && currentPlayerIndex == 1) {
+        if (isAIGame && engine.getCurrentPlayerIndex() == 1) {
             // AI turn - show card backs only
             showAIHand(currentPlayer);
         } else {
@@ -808,10 +675,11 @@ public class SequenceGameGUI extends JFrame {
                 handButtons[i].setEnabled(true);
                 
                 // Check if card is dead or has valid moves
-                List<int[]> validMoves = board.getValidMoves(card, player.getId());
+                handMoves.clear();
+                int validMoveCount = board.addValidMoves(card, player.getId(), handMoves);
                 boolean isDead = board.isDeadCard(card, player.getId());
                 
-                if (isDead || validMoves.isEmpty()) {
+                if (isDead || validMoveCount == 0) {
                     handButtons[i].setBorder(BorderFactory.createLineBorder(Color.RED, 2));
                     handButtons[i].setToolTipText("DEAD CARD - Click to discard and end turn");
                     
@@ -821,7 +689,7 @@ public class SequenceGameGUI extends JFrame {
                         "</font><br><font color='red'><b>DEAD</b></font></center></html>");
                 } else {
                     handButtons[i].setBorder(BorderFactory.createLineBorder(Color.GRAY, 1));
-                    handButtons[i].setToolTipText("Click to select - " + validMoves.size() + " valid moves");
+                    handButtons[i].setToolTipText("Click to select - " + validMoveCount + " valid moves");
                     
                     String suitColor = getSuitColor(card.getSuit()).equals(Color.RED) ? "red" : "black";
                     handButtons[i].setText("<html><center><font color='" + suitColor + "'>" + 
@@ -854,7 +722,7 @@ public class SequenceGameGUI extends JFrame {
         if (gameOver) {
             statusLabel.setText("Game Over!");
         } else {
-            Player currentPlayer = players[currentPlayerIndex];
+            Player currentPlayer = engine.getCurrentPlayer();
             if (selectedCard != null) {
                 statusLabel.setText(currentPlayer.getName() + "'s Turn - Selected: " + selectedCard + " - Click on board to play");
             } else {
@@ -895,128 +763,23 @@ public class SequenceGameGUI extends JFrame {
     }
 
 
-    private boolean isCellPartOfSequence(int row, int col, int playerId) {
-        // Get all valid sequences for this player
-        List<List<int[]>> validSequences = getValidSequencesForPlayer(playerId);
-        
-        // Check if this cell is part of any valid sequence
-        for (List<int[]> sequence : validSequences) {
-            for (int[] pos : sequence) {
-                if (pos[0] == row && pos[1] == col) {
-                    return true;
-                }
-            }
-        }
-        
-        return false;
-    }
-
-    // Add this helper method to SequenceGameGUI.java
-    private List<List<int[]>> getValidSequencesForPlayer(int playerId) {
-        // This mimics the logic from Board.java but returns the actual sequences
-        List<List<int[]>> allSequences = new ArrayList<>();
-        
-        int[][] directions = {
-            {0, 1}, {1, 0}, {1, 1}, {1, -1}
-        };
-        
-        // Find all possible sequences
-        for (int r = 0; r < BOARD_SIZE; r++) {
-            for (int c = 0; c < BOARD_SIZE; c++) {
-                for (int[] dir : directions) {
-                    List<int[]> sequence = getSequenceFromGUI(r, c, dir[0], dir[1], playerId);
-                    if (sequence != null && sequence.size() == 5) {
-                        if (!isDuplicateSequenceGUI(allSequences, sequence)) {
-                            allSequences.add(sequence);
-                        }
-                    }
-                }
-            }
-        }
-        
-        // Filter to get valid sequences (max 1 shared chip)
-        List<List<int[]>> validSequences = new ArrayList<>();
-        boolean[] used = new boolean[allSequences.size()];
-        
-        for (int i = 0; i < allSequences.size(); i++) {
-            if (used[i]) continue;
-            
-            List<int[]> currentSeq = allSequences.get(i);
-            validSequences.add(currentSeq);
-            used[i] = true;
-            
-            for (int j = i + 1; j < allSequences.size(); j++) {
-                if (used[j]) continue;
-                
-                List<int[]> otherSeq = allSequences.get(j);
-                if (countSharedChipsGUI(currentSeq, otherSeq) > 1) {
-                    used[j] = true;
-                }
-            }
-        }
-        
-        return validSequences;
-    }
-
-    // Helper methods for GUI
-    private List<int[]> getSequenceFromGUI(int startRow, int startCol, int deltaR, int deltaC, int playerId) {
-        List<int[]> sequence = new ArrayList<>();
-        
-        for (int i = 0; i < 5; i++) {
-            int r = startRow + i * deltaR;
-            int c = startCol + i * deltaC;
-            
-            if (r < 0 || r >= BOARD_SIZE || c < 0 || c >= BOARD_SIZE) return null;
-            
-            Integer chipOwner = board.getChipAt(r, c);
-            boolean isCorner = board.isCornerAt(r, c);
-            
-            if (!((chipOwner != null && chipOwner == playerId) || isCorner)) {
-                return null;
-            }
-            
-            sequence.add(new int[]{r, c});
-        }
-        
-        // Check no chip before
-        int beforeR = startRow - deltaR;
-        int beforeC = startCol - deltaC;
-        if (beforeR >= 0 && beforeR < BOARD_SIZE && beforeC >= 0 && beforeC < BOARD_SIZE) {
-            Integer beforeChip = board.getChipAt(beforeR, beforeC);
-            boolean beforeCorner = board.isCornerAt(beforeR, beforeC);
-            if ((beforeChip != null && beforeChip == playerId) || beforeCorner) {
-                return null;
-            }
-        }
-        
-        return sequence;
-    }
-
-    private int countSharedChipsGUI(List<int[]> seq1, List<int[]> seq2) {
-        int sharedCount = 0;
-        for (int[] pos1 : seq1) {
-            for (int[] pos2 : seq2) {
-                if (pos1[0] == pos2[0] && pos1[1] == pos2[1]) {
-                    sharedCount++;
-                }
-            }
-        }
-        return sharedCount;
-    }
-
     private void startTurnTimer() {
         if (gameOver) return;
         
         timeLeft = TURN_TIME_SECONDS;
         updateTimerDisplay();
         
+        if (isAIGame && engine.getCurrentPlayerIndex() == 0) {
+            startPondering();
+        }
+        
         // Stop any existing timer
         if (turnTimer != null) {
-            turnTimer.stop();
+            turnTimer.cancel();
         }
         
-        // Create new timer that ticks every second
-        turnTimer = new Timer(1000, e -> {
+        // Count down once a second
+        turnTimer = frames.every(1000, () -> {
             timeLeft--;
             updateTimerDisplay();
             
@@ -1024,13 +787,11 @@ public class SequenceGameGUI extends JFrame {
                 handleTimeOut();
             }
         });
-        
-        turnTimer.start();
     }
 
     private void stopTurnTimer() {
         if (turnTimer != null) {
-            turnTimer.stop();
+            turnTimer.cancel();
         }
         timerLabel.setText("");
     }
@@ -1048,7 +809,7 @@ public class SequenceGameGUI extends JFrame {
     private void handleTimeOut() {
         stopTurnTimer();
         
-        Player currentPlayer = players[currentPlayerIndex];
+        Player currentPlayer = engine.getCurrentPlayer();
         
         // Clear any selected card
         selectedCard = null;
@@ -1070,12 +831,12 @@ public class SequenceGameGUI extends JFrame {
             JOptionPane.WARNING_MESSAGE);
         
         // Move to next player
-        currentPlayerIndex = (currentPlayerIndex + 1) % players.length;
+        engine.skipTurn();
         
         // Update display and start appropriate turn
         updateDisplay();
         
-        if (isAIGame && currentPlayerIndex == 1) {
+        if (isAIGame && engine.getCurrentPlayerIndex() == 1) {
             // AI's turn
             scheduleAIMove();
         } else {
@@ -1083,31 +844,14 @@ public class SequenceGameGUI extends JFrame {
             startTurnTimer();
         }
     }
-    private boolean isDuplicateSequenceGUI(List<List<int[]>> existingSequences, List<int[]> newSequence) {
-        for (List<int[]> existing : existingSequences) {
-            if (existing.size() != newSequence.size()) continue;
-            
-            boolean allMatch = true;
-            for (int i = 0; i < existing.size(); i++) {
-                int[] existingPos = existing.get(i);
-                int[] newPos = newSequence.get(i);
-                if (existingPos[0] != newPos[0] || existingPos[1] != newPos[1]) {
-                    allMatch = false;
-                    break;
-                }
-            }
-            
-            if (allMatch) return true;
-        }
-        return false;
-    }
 
     private GameMode selectGameMode() {
         String[] options = {
             "Human vs Human",
             "Human vs Suppandi (Easy)",
             "Human vs Chacha Chaudhary (Medium)", 
-            "Human vs Chanakya (Hard)"
+            "Human vs Chanakya (Hard)",
+            "Human vs Birbal (Expert)"
         };
         
         int choice = JOptionPane.showOptionDialog(
@@ -1125,6 +869,7 @@ public class SequenceGameGUI extends JFrame {
             case 1: return new GameMode(true, AIPlayer.AILevel.EASY);
             case 2: return new GameMode(true, AIPlayer.AILevel.MEDIUM);
             case 3: return new GameMode(true, AIPlayer.AILevel.HARD);
+            case 4: return new GameMode(true, AIPlayer.AILevel.EXPERT);
             default: return new GameMode(false, null);
         }
         }
@@ -1143,6 +888,9 @@ public class SequenceGameGUI extends JFrame {
 
     private void startNewGame() {
         stopTurnTimer();
+        cancelAIMove();
+        frames.cancelAll();
+        aiExecutor.shutdownNow();
         dispose();
         new SequenceGameGUI().setVisible(true);
     }
@@ -38,9 +38,9 @@ public class SequenceGameTest {
         System.out.println("\n--- Testing Card Play ---");
         
         // Create some test cards
-        Card testCard = new Card("6", "Diamonds"); // Should match 6D on the board
-        Card jackHearts = new Card("J", "Hearts");  // Two-eyed jack (wild)
-        Card jackSpades = new Card("J", "Spades");  // One-eyed jack (removal)
+        Card testCard = Card.of("6", "Diamonds"); // Should match 6D on the board
+        Card jackHearts = Card.of("J", "Hearts");  // Two-eyed jack (wild)
+        Card jackSpades = Card.of("J", "Spades");  // One-eyed jack (removal)
 
         System.out.println("\nTesting normal card play:");
         boolean success1 = board.playCard(player1, testCard, 0, 1);
@@ -59,7 +59,7 @@ public class SequenceGameTest {
 
         // Test dead card detection
         System.out.println("\n--- Testing Dead Card Detection ---");
-        Card testCard2 = new Card("2", "Hearts");
+        Card testCard2 = Card.of("2", "Hearts");
         boolean isDead = board.isDeadCard(testCard2, player1.getId());
         System.out.println("Is " + testCard2 + " dead for player 1? " + isDead);
 
@@ -70,5 +70,74 @@ public class SequenceGameTest {
         for (int[] move : validMoves) {
             System.out.println("  Row " + move[0] + ", Col " + move[1]);
         }
+
+        // Test make/unmake for search code
+        System.out.println("\n--- Testing Make/Unmake Move ---");
+        int sequencesBefore = board.countSequences(player1.getId());
+        boolean made = board.makeMove(testCard, 7, 3, player1.getId());
+        System.out.println("Playing " + testCard + " at (7,3) via makeMove: " + made);
+        System.out.println("Chip at (7,3) after makeMove: " + board.getChipAt(7, 3));
+        if (made) {
+            board.unmakeMove();
+        }
+        System.out.println("Chip at (7,3) after unmakeMove: " + board.getChipAt(7, 3));
+        System.out.println("Sequences unchanged? " + (board.countSequences(player1.getId()) == sequencesBefore));
+
+        // Play a seeded random game with makeMove, then take it all back
+        System.out.println("\n--- Testing Make/Unmake Over A Game ---");
+        String before = state(board);
+        java.util.Random random = new java.util.Random(20);
+        int moves = 0;
+        for (int turn = 0; turn < 200 && !board.hasPlayerWon(1) && !board.hasPlayerWon(2); turn++) {
+            int playerId = 1 + turn % 2;
+            Card card = Card.byId(random.nextInt(Card.COUNT));
+            java.util.List<int[]> options = board.getValidMoves(card, playerId);
+            if (options.isEmpty()) continue;
+            int[] move = options.get(random.nextInt(options.size()));
+            if (board.makeMove(card, move[0], move[1], playerId)) moves++;
+        }
+        System.out.println("Moves made: " + moves + ", sequences " + board.countSequences(1) + " and " + board.countSequences(2));
+        for (int i = 0; i < moves; i++) {
+            board.unmakeMove();
+        }
+        System.out.println("Hash, sequences and windows restored? " + state(board).equals(before));
+
+        // A copy shares nothing with the board it came from
+        System.out.println("\n--- Testing Board Copies ---");
+        Board copy = board.copy();
+        String original = state(board);
+        System.out.println("Copy matches board? " + state(copy).equals(original));
+        boolean madeOnBoard = board.makeMove(jackHearts, 4, 4, player2.getId());
+        System.out.println("Copy unchanged by a move on the board? " + (madeOnBoard && state(copy).equals(original)));
+        board.unmakeMove();
+        boolean madeOnCopy = copy.placeChip(4, 4, player2.getId());
+        System.out.println("Board unchanged by a move on the copy? " + (madeOnCopy && state(board).equals(original)));
+
+        // Tournament statistics
+        System.out.println("\n--- Testing Tournament Statistics ---");
+        double[] interval = Tournament.wilsonInterval(15, 20);
+        System.out.printf("Wilson interval for 15/20: %.3f to %.3f (expected 0.531 to 0.888)%n", interval[0], interval[1]);
+        double[] none = Tournament.wilsonInterval(0, 0);
+        System.out.println("Wilson interval with no games is 0 to 1? " + (none[0] == 0 && none[1] == 1));
+        double[] all = Tournament.wilsonInterval(10, 10);
+        System.out.println("Wilson interval for 10/10 ends at 1? " + (all[1] == 1 && all[0] < 1));
+        long[] sorted = {10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+        System.out.println("Median of 10..100 is 50? " + (Tournament.percentile(sorted, 50) == 50));
+        System.out.println("95th percentile of 10..100 is 100? " + (Tournament.percentile(sorted, 95) == 100));
+        System.out.println("0th percentile is the smallest? " + (Tournament.percentile(sorted, 0) == 10));
+        System.out.println("Percentile of nothing is 0? " + (Tournament.percentile(new long[0], 50) == 0));
+    }
+
+    // Everything make/unmake has to put back: the hash, the sequence counts and, for
+    // both players, every window's count and whether it is still open
+    private static String state(Board board) {
+        StringBuilder state = new StringBuilder(Long.toHexString(board.hash()));
+        for (int id = 1; id <= 2; id++) {
+            state.append(' ').append(board.countSequences(id)).append(':');
+            for (int w = 0; w < SequenceWindows.COUNT; w++) {
+                state.append(board.windowCount(id, w)).append(board.isWindowOpen(id, w) ? 'o' : 'x');
+            }
+        }
+        return state.toString();
     }
 }
\ No newline at end of file
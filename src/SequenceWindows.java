@@ -0,0 +1,146 @@
+import java.util.Arrays;
+
+// Precomputed table of every 5-cell line ("window") on the board.
+// Cells are indexed row * Board.SIZE + col, and each window also carries its
+// cells as a 100-bit lo/hi mask so ownership checks are a couple of ANDs.
+public final class SequenceWindows {
+    public static final int LENGTH = 5;
+
+    // Sequence directions: horizontal right, vertical down, diagonal down-right, diagonal down-left
+    public static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+
+    // Number of windows on the board (192 for a 10x10 board)
+    public static final int COUNT;
+
+    // Cell indexes of each window, in order along its direction
+    public static final int[][] CELLS;
+
+    // Window cells as a mask: cells 0-63 in the lo word, 64-99 in the hi word
+    public static final long[] MASK_LO;
+    public static final long[] MASK_HI;
+
+    // Direction index of each window
+    public static final int[] DIRECTION;
+
+    // Window starting one cell earlier on the same line, or -1 at the line's edge
+    public static final int[] PREVIOUS;
+
+    // Windows passing through each cell
+    public static final int[][] THROUGH;
+
+    // Board lines long enough to hold a window, each listed as its windows in order
+    public static final int LINE_COUNT;
+    public static final int[][] LINE_WINDOWS;
+
+    // Lines passing through each cell (at most one per direction)
+    public static final int[][] LINES_THROUGH;
+
+    static {
+        int size = Board.SIZE;
+        int cells = size * size;
+        int[][] startAt = new int[DIRECTIONS.length][cells];
+
+        int count = 0;
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            for (int i = 0; i < cells; i++) {
+                startAt[d][i] = fits(i, d) ? count++ : -1;
+            }
+        }
+
+        COUNT = count;
+        CELLS = new int[count][LENGTH];
+        MASK_LO = new long[count];
+        MASK_HI = new long[count];
+        DIRECTION = new int[count];
+        PREVIOUS = new int[count];
+
+        int[] throughCount = new int[cells];
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int dr = DIRECTIONS[d][0];
+            int dc = DIRECTIONS[d][1];
+            for (int i = 0; i < cells; i++) {
+                int w = startAt[d][i];
+                if (w < 0) continue;
+
+                int row = i / size;
+                int col = i % size;
+                for (int k = 0; k < LENGTH; k++) {
+                    int cell = (row + k * dr) * size + (col + k * dc);
+                    CELLS[w][k] = cell;
+                    if (cell < 64) MASK_LO[w] |= 1L << cell; else MASK_HI[w] |= 1L << (cell - 64);
+                    throughCount[cell]++;
+                }
+                DIRECTION[w] = d;
+
+                int prevRow = row - dr;
+                int prevCol = col - dc;
+                boolean hasPrev = prevRow >= 0 && prevRow < size && prevCol >= 0 && prevCol < size;
+                PREVIOUS[w] = hasPrev ? startAt[d][prevRow * size + prevCol] : -1;
+            }
+        }
+
+        THROUGH = new int[cells][];
+        for (int i = 0; i < cells; i++) {
+            THROUGH[i] = new int[throughCount[i]];
+            throughCount[i] = 0;
+        }
+        for (int w = 0; w < count; w++) {
+            for (int cell : CELLS[w]) {
+                THROUGH[cell][throughCount[cell]++] = w;
+            }
+        }
+
+        // A line starts at each window with no predecessor and runs through its successors
+        int[] next = new int[count];
+        Arrays.fill(next, -1);
+        int lineCount = 0;
+        for (int w = 0; w < count; w++) {
+            if (PREVIOUS[w] >= 0) next[PREVIOUS[w]] = w; else lineCount++;
+        }
+
+        LINE_COUNT = lineCount;
+        LINE_WINDOWS = new int[lineCount][];
+        int[][] lineOfCell = new int[cells][DIRECTIONS.length];
+        for (int[] lines : lineOfCell) Arrays.fill(lines, -1);
+
+        int line = 0;
+        for (int w = 0; w < count; w++) {
+            if (PREVIOUS[w] >= 0) continue;
+
+            int length = 0;
+            for (int v = w; v >= 0; v = next[v]) length++;
+            LINE_WINDOWS[line] = new int[length];
+            length = 0;
+            for (int v = w; v >= 0; v = next[v]) {
+                LINE_WINDOWS[line][length++] = v;
+                for (int cell : CELLS[v]) lineOfCell[cell][DIRECTION[v]] = line;
+            }
+            line++;
+        }
+
+        LINES_THROUGH = new int[cells][];
+        for (int i = 0; i < cells; i++) {
+            LINES_THROUGH[i] = Arrays.stream(lineOfCell[i]).filter(l -> l >= 0).toArray();
+        }
+    }
+
+    private SequenceWindows() {
+    }
+
+    // Check whether every cell of window w is set in the given mask
+    public static boolean isFull(int w, long lo, long hi) {
+        return (lo & MASK_LO[w]) == MASK_LO[w] && (hi & MASK_HI[w]) == MASK_HI[w];
+    }
+
+    // Number of window w's cells set in the given mask
+    public static int countIn(int w, long lo, long hi) {
+        return Long.bitCount(lo & MASK_LO[w]) + Long.bitCount(hi & MASK_HI[w]);
+    }
+
+    // Whether a window of 5 starting at cell index i stays on the board in direction d
+    private static boolean fits(int i, int d) {
+        int row = i / Board.SIZE + (LENGTH - 1) * DIRECTIONS[d][0];
+        int col = i % Board.SIZE + (LENGTH - 1) * DIRECTIONS[d][1];
+        return row >= 0 && row < Board.SIZE && col >= 0 && col < Board.SIZE;
+    }
+}
@@ -0,0 +1,231 @@
+import java.util.Arrays;
+
+// Everything the AI's evaluation terms need to know about a position, worked out in
+// one pass over the board. The AI fills a map once per batch of moves it scores (once
+// per turn, or once per search node) and every term then reads from it, so scoring a
+// move is a handful of array lookups instead of rescanning lines around its cell.
+//
+// Per window of 5 it holds each player's count of chips and corners; per cell, each
+// player's longest run through it, the cells that would fill a line of 5, and chip
+// counts around it. Corners count for every player, as they do on the board.
+//
+// A map describes the board it was last updated from. update must not run while
+// another thread reads the map; reading from several threads at once is fine.
+public final class ThreatMap {
+    private static final int PLAYERS = Board.MAX_PLAYERS + 1;  // indexed by player id
+    private static final int CELLS = Board.CELLS;
+    private static final int RUN_LIMIT = SequenceWindows.LENGTH - 1;
+
+    private final byte[] owner = new byte[CELLS];           // chip owner per cell, 0 if empty
+    private final boolean[] corner = new boolean[CELLS];
+    private final int[] sequences = new int[PLAYERS];
+
+    private final byte[][] windowCount = new byte[PLAYERS][SequenceWindows.COUNT];
+
+    private final byte[][] progress = new byte[PLAYERS][CELLS];   // longest run through the cell
+    private final boolean[][] completes = new boolean[PLAYERS][CELLS];
+    private final byte[][] adjacent = new byte[PLAYERS][CELLS];   // own chips and corners around
+    private final byte[][] control = new byte[PLAYERS][CELLS];    // own chips within 2 cells
+    private final byte[] emptyAround = new byte[CELLS];           // empty cells in the 3x3 block
+
+    // Neighbouring cell of each cell in each direction, ahead and behind; -1 off the board
+    private static final int[][] AHEAD = new int[SequenceWindows.DIRECTIONS.length][CELLS];
+    private static final int[][] BEHIND = new int[SequenceWindows.DIRECTIONS.length][CELLS];
+
+    static {
+        for (int d = 0; d < SequenceWindows.DIRECTIONS.length; d++) {
+            int dr = SequenceWindows.DIRECTIONS[d][0];
+            int dc = SequenceWindows.DIRECTIONS[d][1];
+            for (int cell = 0; cell < CELLS; cell++) {
+                int row = cell / Board.SIZE;
+                int col = cell % Board.SIZE;
+                AHEAD[d][cell] = onBoard(row + dr, col + dc) ? (row + dr) * Board.SIZE + col + dc : -1;
+                BEHIND[d][cell] = onBoard(row - dr, col - dc) ? (row - dr) * Board.SIZE + col - dc : -1;
+            }
+        }
+    }
+
+    // Scratch space for update
+    private static final int STRIDE = Board.SIZE + 1;
+    private final int[] runAhead = new int[CELLS];
+    private final int[] runBehind = new int[CELLS];
+    private final boolean[] marked = new boolean[CELLS];
+    private final int[] markedSums = new int[STRIDE * STRIDE];
+
+    public ThreatMap() {
+    }
+
+    public ThreatMap(Board board) {
+        update(board);
+    }
+
+    // Recompute the map for the board as it is now
+    public void update(Board board) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            int row = cell / Board.SIZE;
+            int col = cell % Board.SIZE;
+            Integer chip = board.getChipAt(row, col);
+            owner[cell] = (byte) (chip == null ? 0 : chip);
+            corner[cell] = board.isCornerAt(row, col);
+        }
+        for (int id = 1; id < PLAYERS; id++) {
+            sequences[id] = board.countSequences(id);
+            Arrays.fill(completes[id], false);
+        }
+
+        mapWindows(board);
+        for (int id = 1; id < PLAYERS; id++) {
+            mapRuns(id);
+            mapNeighbourhoods(id);
+        }
+        mapEmptyCells();
+    }
+
+    // Window counts, kept by the board, and the cells that would fill a window
+    private void mapWindows(Board board) {
+        for (int id = 1; id < PLAYERS; id++) {
+            for (int w = 0; w < SequenceWindows.COUNT; w++) {
+                int own = board.windowCount(id, w);
+                windowCount[id][w] = (byte) own;
+
+                // A chip on the one gap fills the window; a full window stays full
+                if (own == SequenceWindows.LENGTH) {
+                    for (int cell : SequenceWindows.CELLS[w]) completes[id][cell] = true;
+                } else if (own == SequenceWindows.LENGTH - 1) {
+                    for (int cell : SequenceWindows.CELLS[w]) {
+                        if (!isOwn(cell, id)) completes[id][cell] = true;
+                    }
+                }
+            }
+        }
+    }
+
+    // Longest run through each cell: the cell itself plus up to 4 own cells each way,
+    // in the best direction. Runs ahead are built from the far end of the board back,
+    // runs behind from the near end forward, so each cell reuses its neighbour's run.
+    private void mapRuns(int playerId) {
+        byte[] best = progress[playerId];
+        Arrays.fill(best, (byte) 0);
+        for (int d = 0; d < SequenceWindows.DIRECTIONS.length; d++) {
+            int[] ahead = AHEAD[d];
+            int[] behind = BEHIND[d];
+            for (int cell = CELLS - 1; cell >= 0; cell--) {
+                int next = ahead[cell];
+                runAhead[cell] = next >= 0 && isOwn(next, playerId)
+                        ? Math.min(RUN_LIMIT, 1 + runAhead[next]) : 0;
+            }
+            for (int cell = 0; cell < CELLS; cell++) {
+                int previous = behind[cell];
+                runBehind[cell] = previous >= 0 && isOwn(previous, playerId)
+                        ? Math.min(RUN_LIMIT, 1 + runBehind[previous]) : 0;
+                best[cell] = (byte) Math.max(best[cell], 1 + runAhead[cell] + runBehind[cell]);
+            }
+        }
+    }
+
+    // Own chips and corners among each cell's neighbours, and own chips within 2 cells
+    private void mapNeighbourhoods(int playerId) {
+        for (int cell = 0; cell < CELLS; cell++) {
+            marked[cell] = isOwn(cell, playerId);
+        }
+        sumMarked();
+        for (int cell = 0; cell < CELLS; cell++) {
+            adjacent[playerId][cell] = (byte) (countAround(cell, 1) - (marked[cell] ? 1 : 0));
+        }
+
+        for (int cell = 0; cell < CELLS; cell++) {
+            marked[cell] = owner[cell] == playerId;
+        }
+        sumMarked();
+        for (int cell = 0; cell < CELLS; cell++) {
+            control[playerId][cell] = (byte) countAround(cell, 2);
+        }
+    }
+
+    // Empty cells in each cell's 3x3 block
+    private void mapEmptyCells() {
+        for (int cell = 0; cell < CELLS; cell++) {
+            marked[cell] = owner[cell] == 0;
+        }
+        sumMarked();
+        for (int cell = 0; cell < CELLS; cell++) {
+            emptyAround[cell] = (byte) countAround(cell, 1);
+        }
+    }
+
+    // Prefix sums of marked: markedSums[(r + 1) * STRIDE + c + 1] counts the marked
+    // cells in rows 0..r and columns 0..c
+    private void sumMarked() {
+        for (int r = 0; r < Board.SIZE; r++) {
+            int rowTotal = 0;
+            for (int c = 0; c < Board.SIZE; c++) {
+                if (marked[r * Board.SIZE + c]) rowTotal++;
+                markedSums[(r + 1) * STRIDE + c + 1] = markedSums[r * STRIDE + c + 1] + rowTotal;
+            }
+        }
+    }
+
+    // Marked cells in the square of the given radius around the cell, clipped to the board
+    private int countAround(int cell, int radius) {
+        int top = Math.max(0, cell / Board.SIZE - radius);
+        int left = Math.max(0, cell % Board.SIZE - radius);
+        int bottom = Math.min(Board.SIZE, cell / Board.SIZE + radius + 1);
+        int right = Math.min(Board.SIZE, cell % Board.SIZE + radius + 1);
+        return markedSums[bottom * STRIDE + right] - markedSums[top * STRIDE + right]
+                - markedSums[bottom * STRIDE + left] + markedSums[top * STRIDE + left];
+    }
+
+    private boolean isOwn(int cell, int playerId) {
+        return owner[cell] == playerId || corner[cell];
+    }
+
+    private static boolean onBoard(int row, int col) {
+        return row >= 0 && row < Board.SIZE && col >= 0 && col < Board.SIZE;
+    }
+
+    // Completed sequences of the player
+    public int sequences(int playerId) {
+        return sequences[playerId];
+    }
+
+    // The player's chips plus corners in window w
+    public int windowCount(int playerId, int w) {
+        return windowCount[playerId][w];
+    }
+
+    // Chip owner at the cell, or 0 if it is empty or off the board
+    public int ownerAt(int row, int col) {
+        return onBoard(row, col) ? owner[row * Board.SIZE + col] : 0;
+    }
+
+    public boolean isCornerAt(int row, int col) {
+        return onBoard(row, col) && corner[row * Board.SIZE + col];
+    }
+
+    // Longest line of the player's chips and corners through the cell, counting the
+    // cell itself and up to 4 cells each way
+    public int progress(int playerId, int row, int col) {
+        return onBoard(row, col) ? progress[playerId][row * Board.SIZE + col] : 0;
+    }
+
+    // Whether a chip of the player's here would fill some line of 5,
+    // like Board.wouldCompleteLine
+    public boolean completesLine(int playerId, int row, int col) {
+        return onBoard(row, col) && completes[playerId][row * Board.SIZE + col];
+    }
+
+    // The player's chips and corners among the 8 neighbours of the cell
+    public int adjacent(int playerId, int row, int col) {
+        return onBoard(row, col) ? adjacent[playerId][row * Board.SIZE + col] : 0;
+    }
+
+    // The player's chips within 2 cells of the cell, itself included
+    public int control(int playerId, int row, int col) {
+        return onBoard(row, col) ? control[playerId][row * Board.SIZE + col] : 0;
+    }
+
+    // Empty cells in the 3x3 block around the cell, itself included
+    public int emptyAround(int row, int col) {
+        return onBoard(row, col) ? emptyAround[row * Board.SIZE + col] : 0;
+    }
+}
@@ -0,0 +1,120 @@
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+// Pre-rendered text for the board, drawn once into one image so painting a cell is a
+// background fill and a couple of image copies. The atlas holds one tile per card
+// face (the rank and suit, or FREE for corners) and one per chip glyph: the plain
+// chip and the star of a sequence chip. Tiles are transparent apart from their text,
+// so the same tile serves every cell background (owner colours, hover, highlight).
+//
+// Tiles are rendered at the screen's scale, so text stays sharp on high-DPI screens;
+// BoardView makes a new atlas when the scale changes. Positions passed to the draw
+// methods are in unscaled component pixels.
+public final class TileAtlas {
+    private static final Font CARD_FONT = new Font("Arial", Font.BOLD, 18);
+    private static final Font CHIP_FONT = new Font("Arial", Font.BOLD, 32);
+    private static final Font SEQUENCE_CHIP_FONT = new Font("Arial", Font.BOLD, 28);
+    private static final Color CHIP_COLOR = Color.WHITE;
+    private static final String CHIP = "●";
+    private static final String SEQUENCE_CHIP = "★";
+
+    private static final int LABEL_TOP = 3;   // gap above a card name on a cell with a chip
+    private static final int BLEED = 2;       // room either side of the text for antialiasing
+
+    private final double scale;
+    private final int cellSize;
+    private final BufferedImage image;
+
+    // Unscaled layout of the atlas: one row per tile, faces first and then the plain
+    // and sequence chip. Each tile is just wide enough for its text; left is where the
+    // tile sits across a cell.
+    private final int labelHeight;
+    private final int labelBottom;   // ascent plus descent, the label without its leading
+    private final int[] chipHeight = new int[2];
+    private final int[] chipTop = new int[2];
+    private final int[] left;
+    private final int[] width;
+
+    // Render the faces, given as the text and colour of each, for cells of cellSize
+    // pixels at the given screen scale
+    public TileAtlas(String[] faceLabels, Color[] faceColors, int cellSize, double scale) {
+        this.scale = scale;
+        this.cellSize = cellSize;
+        int faces = faceLabels.length;
+
+        // Measure unscaled, so the layout is the same at every scale
+        Graphics2D measure = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+        FontMetrics cardMetrics = measure.getFontMetrics(CARD_FONT);
+        FontMetrics[] chipMetrics = {measure.getFontMetrics(CHIP_FONT), measure.getFontMetrics(SEQUENCE_CHIP_FONT)};
+        measure.dispose();
+
+        String[] glyphs = {CHIP, SEQUENCE_CHIP};
+        left = new int[faces + 2];
+        width = new int[faces + 2];
+        int atlasWidth = 0;
+        for (int tile = 0; tile < faces + 2; tile++) {
+            int textWidth = tile < faces ? cardMetrics.stringWidth(faceLabels[tile])
+                    : chipMetrics[tile - faces].stringWidth(glyphs[tile - faces]);
+            left[tile] = (cellSize - textWidth) / 2 - BLEED;
+            width[tile] = textWidth + 2 * BLEED;
+            atlasWidth = Math.max(atlasWidth, width[tile]);
+        }
+
+        labelHeight = cardMetrics.getHeight();
+        labelBottom = cardMetrics.getAscent() + cardMetrics.getDescent();
+        int height = faces * labelHeight;
+        for (int kind = 0; kind < 2; kind++) {
+            chipTop[kind] = height;
+            chipHeight[kind] = chipMetrics[kind].getHeight();
+            height += chipHeight[kind];
+        }
+
+        image = new BufferedImage((int) Math.ceil(atlasWidth * scale), (int) Math.ceil(height * scale),
+                BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.scale(scale, scale);
+
+        g.setFont(CARD_FONT);
+        for (int face = 0; face < faces; face++) {
+            g.setColor(faceColors[face]);
+            g.drawString(faceLabels[face], BLEED, face * labelHeight + cardMetrics.getAscent());
+        }
+
+        Font[] fonts = {CHIP_FONT, SEQUENCE_CHIP_FONT};
+        g.setColor(CHIP_COLOR);
+        for (int kind = 0; kind < 2; kind++) {
+            g.setFont(fonts[kind]);
+            g.drawString(glyphs[kind], BLEED, chipTop[kind] + chipMetrics[kind].getAscent());
+        }
+        g.dispose();
+    }
+
+    public double scale() {
+        return scale;
+    }
+
+    // Draw a face into the cell at x, y: centred, or at the top when a chip is drawn below
+    public void drawFace(Graphics g, int face, int x, int y, boolean withChip) {
+        int top = withChip ? y + LABEL_TOP : y + (cellSize - labelHeight) / 2;
+        drawTile(g, face, face * labelHeight, labelHeight, x, top);
+    }
+
+    // Draw a chip into the cell at x, y, centred in the space below the face
+    public void drawChip(Graphics g, boolean sequence, int x, int y) {
+        int kind = sequence ? 1 : 0;
+        int top = y + LABEL_TOP + labelBottom;
+        int chipY = top + (y + cellSize - top - chipHeight[kind]) / 2;
+        drawTile(g, left.length - 2 + kind, chipTop[kind], chipHeight[kind], x, chipY);
+    }
+
+    // Copy one tile to the cell, scaling from atlas pixels back to component pixels
+    private void drawTile(Graphics g, int tile, int row, int height, int x, int y) {
+        int dx = x + left[tile];
+        int sx = (int) Math.round(width[tile] * scale);
+        int sy1 = (int) Math.round(row * scale);
+        int sy2 = (int) Math.round((row + height) * scale);
+        g.drawImage(image, dx, y, dx + width[tile], y + height, 0, sy1, sx, sy2, null);
+    }
+}
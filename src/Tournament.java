@@ -0,0 +1,211 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// Plays many headless games between two AI levels and reports strength and speed:
+// win rates with 95% confidence intervals, games and moves per second, average game
+// length and how long each level takes per move.
+//
+//   java Tournament HARD MEDIUM [games] [seed] [threads] [millis|#nodes]
+//
+// Games run in parallel, one per thread. Each game gets its own deck and AI seeds
+// derived from the tournament seed and the game number, so a tournament with node
+// limits plays the same games whatever the thread count. The levels take turns to
+// move first.
+public class Tournament {
+    // A game that hasn't ended after this many turns is scored as a draw
+    private static final int MAX_TURNS = 1_000;
+
+    private final AIPlayer.AILevel levelA;
+    private final AIPlayer.AILevel levelB;
+    private final SearchLimits limits;
+    private final long seed;
+
+    // The outcome of one game: who won (0 for A, 1 for B, -1 for a draw), how many
+    // moves were made and how long each side took over each of its moves
+    private static class GameResult {
+        int winner = -1;
+        int moves;
+        long[][] latencies = new long[2][];
+        int[] counts = new int[2];
+
+        void record(int side, long nanos) {
+            long[] times = latencies[side];
+            if (times == null) {
+                times = latencies[side] = new long[64];
+            } else if (counts[side] == times.length) {
+                times = latencies[side] = Arrays.copyOf(times, times.length * 2);
+            }
+            times[counts[side]++] = nanos;
+        }
+    }
+
+    public Tournament(AIPlayer.AILevel levelA, AIPlayer.AILevel levelB, SearchLimits limits, long seed) {
+        this.levelA = levelA;
+        this.levelB = levelB;
+        this.limits = limits;
+        this.seed = seed;
+    }
+
+    // Play one game; A moves first in even-numbered games, B in odd ones
+    private GameResult playGame(int game) {
+        SplittableRandom seeds = new SplittableRandom(seed ^ (game * 0x9E3779B97F4A7C15L));
+        int first = game % 2;
+
+        AIPlayer[] ais = new AIPlayer[2];
+        ais[0] = new AIPlayer(levelA, seeds.nextLong());
+        ais[1] = new AIPlayer(levelB, seeds.nextLong());
+        Player[] players = new Player[2];
+        players[0] = new Player(1, levelA.getName());
+        players[1] = new Player(2, levelB.getName());
+
+        // Seat the side that moves first as the engine's first player
+        GameEngine engine = new GameEngine(new Deck(new Random(seeds.nextLong())),
+                players[first], players[1 - first]);
+        Board board = engine.getBoard();
+
+        GameResult result = new GameResult();
+        for (int turn = 0; turn < MAX_TURNS && !engine.isOver(); turn++) {
+            Player current = engine.getCurrentPlayer();
+            int side = current == players[0] ? 0 : 1;
+
+            long start = System.nanoTime();
+            AIMove move = ais[side].chooseMove(board, current, players[1 - side], engine.getSpentCards(), limits);
+            result.record(side, System.nanoTime() - start);
+            result.moves++;
+
+            // A move the rules reject costs the turn, as running out of time does
+            if (move == null || !engine.apply(move)) {
+                engine.skipTurn();
+            }
+        }
+
+        Player winner = engine.winner();
+        if (winner != null) {
+            result.winner = winner == players[0] ? 0 : 1;
+        }
+        return result;
+    }
+
+    // Play the games on the given number of threads and print the report
+    public void run(int games, int threads) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<GameResult>> futures = new ArrayList<>(games);
+
+        long start = System.nanoTime();
+        try {
+            for (int g = 0; g < games; g++) {
+                final int game = g;
+                futures.add(executor.submit(() -> playGame(game)));
+            }
+
+            GameResult[] results = new GameResult[games];
+            for (int g = 0; g < games; g++) {
+                results[g] = futures.get(g).get();
+            }
+            long elapsed = System.nanoTime() - start;
+            report(results, elapsed, threads);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void report(GameResult[] results, long elapsedNanos, int threads) {
+        int games = results.length;
+        int[] wins = new int[2];
+        int draws = 0;
+        long totalMoves = 0;
+        long[][] latencies = new long[2][];
+        int[] counts = new int[2];
+
+        for (GameResult r : results) {
+            if (r.winner >= 0) wins[r.winner]++; else draws++;
+            totalMoves += r.moves;
+            for (int side = 0; side < 2; side++) {
+                counts[side] += r.counts[side];
+            }
+        }
+        for (int side = 0; side < 2; side++) {
+            latencies[side] = new long[counts[side]];
+            int n = 0;
+            for (GameResult r : results) {
+                if (r.latencies[side] != null) {
+                    System.arraycopy(r.latencies[side], 0, latencies[side], n, r.counts[side]);
+                    n += r.counts[side];
+                }
+            }
+            Arrays.sort(latencies[side]);
+        }
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.println(levelA.getName() + " vs " + levelB.getName()
+                + ": " + games + " games, " + limits + ", " + threads + " thread(s), seed " + seed);
+        System.out.println("=".repeat(60));
+        printWinRate(levelA.getName(), wins[0], games);
+        printWinRate(levelB.getName(), wins[1], games);
+        System.out.printf("%-20s %5d%n", "Draws", draws);
+        System.out.println();
+        System.out.printf("Time                 %.1f s%n", seconds);
+        System.out.printf("Games per second     %.2f%n", games / seconds);
+        System.out.printf("Moves per second     %.1f%n", totalMoves / seconds);
+        System.out.printf("Average game length  %.1f moves%n", (double) totalMoves / games);
+        System.out.println();
+        System.out.println("Move latency (ms)        p50      p90      p99      max");
+        printLatencies(levelA.getName(), latencies[0]);
+        printLatencies(levelB.getName(), latencies[1]);
+    }
+
+    private static void printWinRate(String name, int wins, int games) {
+        double[] interval = wilsonInterval(wins, games);
+        System.out.printf("%-20s %5d  %5.1f%%  (95%% CI %.1f%% - %.1f%%)%n", name, wins,
+                100.0 * wins / games, 100 * interval[0], 100 * interval[1]);
+    }
+
+    private static void printLatencies(String name, long[] sorted) {
+        System.out.printf("%-20s %8.2f %8.2f %8.2f %8.2f%n", name,
+                percentile(sorted, 50) / 1e6, percentile(sorted, 90) / 1e6,
+                percentile(sorted, 99) / 1e6, percentile(sorted, 100) / 1e6);
+    }
+
+    // The 95% Wilson score interval for a proportion of successes out of trials.
+    // Unlike the normal approximation it stays inside [0, 1] and behaves sensibly
+    // for win rates near 0% or 100%.
+    static double[] wilsonInterval(int successes, int trials) {
+        if (trials == 0) return new double[] {0, 1};
+        final double z = 1.96;
+        double p = (double) successes / trials;
+        double denominator = 1 + z * z / trials;
+        double centre = (p + z * z / (2.0 * trials)) / denominator;
+        double margin = z * Math.sqrt(p * (1 - p) / trials + z * z / (4.0 * trials * trials)) / denominator;
+        return new double[] {Math.max(0, centre - margin), Math.min(1, centre + margin)};
+    }
+
+    // Nearest-rank percentile of sorted values; 0 when there are none
+    static long percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: java Tournament LEVEL_A LEVEL_B [games] [seed] [threads] [millis|#nodes]");
+            System.out.println("Levels: " + Arrays.toString(AIPlayer.AILevel.values()));
+            System.out.println("Searches default to " + SearchLimits.FAST);
+            return;
+        }
+
+        AIPlayer.AILevel levelA = AIPlayer.AILevel.valueOf(args[0].toUpperCase());
+        AIPlayer.AILevel levelB = AIPlayer.AILevel.valueOf(args[1].toUpperCase());
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 1_000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        SearchLimits limits = SearchLimits.FAST;
+        if (args.length > 5) {
+            limits = args[5].startsWith("#")
+                    ? SearchLimits.nodes(Long.parseLong(args[5].substring(1)))
+                    : SearchLimits.millis(Long.parseLong(args[5]));
+        }
+
+        new Tournament(levelA, levelB, limits, seed).run(games, threads);
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.Arrays;
+
+// Fixed-size cache of search results keyed by a position hash.
+//
+// Entries live in two parallel long arrays, so the table never allocates after it is
+// built. Each bucket has two slots: the first keeps the deepest result seen in the
+// current search, the second always takes the newest, so deep results survive while
+// recent ones are still cached. A slot stores its key XORed with its data, which lets
+// a probe reject a slot whose two words were written by different stores.
+//
+// Scores are exact expectimax values: the search has no alpha-beta window, so there
+// are no bounds to record. Data word layout: score in bits 0-31, best move + 1 in
+// bits 32-47 (0 = none), depth in bits 48-55 and search generation in bits 56-61.
+public final class TranspositionTable {
+    // Returned by probe when the position is not in the table
+    public static final long MISSING = 0;
+
+    // Returned by move when the entry has no best move
+    public static final int NO_MOVE = -1;
+
+    private static final int BYTES_PER_SLOT = 2 * Long.BYTES;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int MAX_MOVE = 0xFFFE;
+    private static final int GENERATIONS = 64;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int generation;
+
+    // Statistics since the table was created or cleared
+    private long hits;
+    private long misses;
+    private long stores;
+    private long overwrites;
+
+    // Table using at most the given number of megabytes
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("Table size must be at least 1 MB: " + megabytes);
+        }
+        long slots = (long) megabytes * 1024 * 1024 / BYTES_PER_SLOT;
+        int buckets = Integer.highestOneBit((int) Math.min(slots / 2, 1 << 28));
+        keys = new long[2 * buckets];
+        data = new long[2 * buckets];
+        bucketMask = buckets - 1;
+    }
+
+    // Data word stored for this key, or MISSING
+    public long probe(long key) {
+        int slot = (int) key & bucketMask;
+        slot += slot;
+        for (int i = slot; i < slot + 2; i++) {
+            long entry = data[i];
+            if (entry != MISSING && (keys[i] ^ entry) == key) {
+                hits++;
+                return entry;
+            }
+        }
+        misses++;
+        return MISSING;
+    }
+
+    // Remember a result for this key. depth must be at least 1 and move is a
+    // caller-defined code from 0 to 65534, or NO_MOVE.
+    public void store(long key, int depth, int score, int move) {
+        long entry = (score & 0xFFFFFFFFL)
+                | (long) (Math.min(move, MAX_MOVE) + 1) << 32
+                | (long) Math.min(Math.max(depth, 1), MAX_DEPTH) << 48
+                | (long) generation << 56;
+
+        int slot = (int) key & bucketMask;
+        slot += slot;
+        long deep = data[slot];
+        boolean sameKey = deep != MISSING && (keys[slot] ^ deep) == key;
+        boolean replaceDeep = deep == MISSING
+                || sameKey
+                || depth >= depth(deep)
+                || generationOf(deep) != generation;
+
+        int target = replaceDeep ? slot : slot + 1;
+        if (data[target] != MISSING && (keys[target] ^ data[target]) != key) {
+            overwrites++;
+        }
+        keys[target] = key ^ entry;
+        data[target] = entry;
+        stores++;
+    }
+
+    // Start a new search: entries from earlier searches stay usable but give way
+    // to new results in the depth-preferred slots
+    public void newSearch() {
+        generation = (generation + 1) % GENERATIONS;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+        generation = 0;
+        hits = misses = stores = overwrites = 0;
+    }
+
+    public static int score(long entry) {
+        return (int) entry;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry >>> 32 & 0xFFFF) - 1;
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 48 & 0xFF);
+    }
+
+    private static int generationOf(long entry) {
+        return (int) (entry >>> 56);
+    }
+
+    // Number of entries the table can hold
+    public int capacity() {
+        return keys.length;
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getStores() { return stores; }
+    public long getOverwrites() { return overwrites; }
+
+    // Fraction of probes that found their position
+    public double getHitRate() {
+        long probes = hits + misses;
+        return probes == 0 ? 0 : (double) hits / probes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TT %d entries: %d hits, %d misses (%.1f%%), %d stores, %d overwrites",
+                capacity(), hits, misses, 100 * getHitRate(), stores, overwrites);
+    }
+}